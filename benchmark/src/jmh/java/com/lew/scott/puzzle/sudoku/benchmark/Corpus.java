@@ -0,0 +1,55 @@
+package com.lew.scott.puzzle.sudoku.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+
+import com.lew.scott.puzzle.sudoku.data.SudokuMatrix;
+
+/**
+ * 基准测试用的固定谜题集，在resources/corpus下，每行81个字符，'.'或'0'表示空白。
+ * easy/medium只用唯一候选和隐性唯一候选就能解出，hard需要搜索，17clue是17个提示数的谜题
+ */
+final class Corpus {
+
+	private Corpus() {
+	}
+
+	static int[][][] load(String name) {
+		InputStream in = Corpus.class.getResourceAsStream("/corpus/" + name + ".txt");
+		if (in == null) {
+			throw new IllegalArgumentException("没有这个谜题集：" + name);
+		}
+		ArrayList<int[][]> puzzles = new ArrayList<int[][]>();
+		try {
+			BufferedReader reader = new BufferedReader(new InputStreamReader(in, "US-ASCII"));
+			try {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					if (line.length() < SudokuMatrix.SQUARE_LENGTH * SudokuMatrix.SQUARE_LENGTH) {
+						continue;
+					}
+					puzzles.add(parse(line));
+				}
+			} finally {
+				reader.close();
+			}
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		return puzzles.toArray(new int[puzzles.size()][][]);
+	}
+
+	private static int[][] parse(String line) {
+		int[][] m = new int[SudokuMatrix.SQUARE_LENGTH][SudokuMatrix.SQUARE_LENGTH];
+		for (int i = 0; i < SudokuMatrix.SQUARE_LENGTH; i++) {
+			for (int j = 0; j < SudokuMatrix.SQUARE_LENGTH; j++) {
+				char ch = line.charAt(i * SudokuMatrix.SQUARE_LENGTH + j);
+				m[i][j] = (ch >= '1' && ch <= '9') ? ch - '0' : SudokuMatrix.UNSET_VALUE;
+			}
+		}
+		return m;
+	}
+}
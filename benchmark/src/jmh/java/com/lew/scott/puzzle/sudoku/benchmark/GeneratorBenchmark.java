@@ -0,0 +1,49 @@
+package com.lew.scott.puzzle.sudoku.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.lew.scott.puzzle.sudoku.data.SudokuMatrix;
+
+/**
+ * 生成速度，使用固定的随机数种子，每次运行的结果可以比较
+ */
+@State(Scope.Thread)
+public class GeneratorBenchmark {
+
+	@Param({"3", "6"})
+	public int degree;
+
+	private SudokuMatrix matrix;
+	private SudokuMatrix searchMatrix; // 用回溯求解器随机填充
+
+	@Setup
+	public void setup() {
+		matrix = new SudokuMatrix(degree, 20240101L);
+		searchMatrix = new SudokuMatrix(degree, 20240101L);
+		searchMatrix.setPermutationFill(false);
+	}
+
+	@Benchmark
+	public int[][] generateValidMatrix() {
+		return matrix.generateValidMatrix();
+	}
+
+	@Benchmark
+	public int[][] generateValidMatrixBySearch() {
+		return searchMatrix.generateValidMatrix();
+	}
+
+	@Benchmark
+	public int[][] generatePuzzle() {
+		return matrix.generatePuzzle();
+	}
+
+	@Benchmark
+	public int[][] generateUniquePuzzle() {
+		return matrix.generateUniquePuzzle(24, true);
+	}
+}
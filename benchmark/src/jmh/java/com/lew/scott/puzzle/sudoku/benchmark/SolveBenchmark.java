@@ -0,0 +1,52 @@
+package com.lew.scott.puzzle.sudoku.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.lew.scott.puzzle.sudoku.data.SudokuMatrix;
+
+/**
+ * 求解速度：每次操作载入谜题集中的下一个谜题并求解
+ */
+@State(Scope.Thread)
+public class SolveBenchmark {
+
+	@Param({"easy", "medium", "hard", "17clue"})
+	public String corpus;
+
+	// SudokuMatrix.ENGINE_PROPAGATION, SudokuMatrix.ENGINE_DANCING_LINKS
+	@Param({"0", "1"})
+	public int engine;
+
+	private int[][][] puzzles;
+	private SudokuMatrix matrix;
+	private int next;
+
+	@Setup
+	public void setup() {
+		puzzles = Corpus.load(corpus);
+		matrix = new SudokuMatrix();
+		matrix.setSolverEngine(engine);
+	}
+
+	@Benchmark
+	public boolean solve() {
+		matrix.initMatrix(nextPuzzle());
+		return matrix.solve();
+	}
+
+	@Benchmark
+	public int countSolutions() {
+		matrix.initMatrix(nextPuzzle());
+		return matrix.countSolutions(2);
+	}
+
+	private int[][] nextPuzzle() {
+		int[][] p = puzzles[next];
+		next = (next + 1) % puzzles.length;
+		return p;
+	}
+}
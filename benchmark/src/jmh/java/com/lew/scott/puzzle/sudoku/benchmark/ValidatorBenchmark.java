@@ -0,0 +1,87 @@
+package com.lew.scott.puzzle.sudoku.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.lew.scott.puzzle.sudoku.data.GridValidator;
+import com.lew.scott.puzzle.sudoku.data.SudokuMatrix;
+
+/**
+ * 校验和可选值计算：checkMatrix和validateGrid用求解后的完整矩阵，其余用谜题本身
+ */
+@State(Scope.Thread)
+public class ValidatorBenchmark {
+
+	@Param({"easy", "hard"})
+	public String corpus;
+
+	private SudokuMatrix[] puzzles;
+	private SudokuMatrix[] solved;
+	private int[][] solvedGrids; // 求解后按行展开的矩阵
+	private final GridValidator validator = new GridValidator();
+	private int next;
+	private int cell;
+
+	@Setup
+	public void setup() {
+		int[][][] values = Corpus.load(corpus);
+		puzzles = new SudokuMatrix[values.length];
+		solved = new SudokuMatrix[values.length];
+		solvedGrids = new int[values.length][SudokuMatrix.SQUARE_LENGTH * SudokuMatrix.SQUARE_LENGTH];
+		for (int i = 0; i < values.length; i++) {
+			puzzles[i] = new SudokuMatrix(values[i]);
+			solved[i] = new SudokuMatrix(values[i]);
+			solved[i].solve();
+			for (int k = 0; k < solvedGrids[i].length; k++) {
+				solvedGrids[i][k] = solved[i].getCellValue(k / SudokuMatrix.SQUARE_LENGTH, k % SudokuMatrix.SQUARE_LENGTH);
+			}
+		}
+	}
+
+	@Benchmark
+	public boolean checkMatrix() {
+		return solved[nextIndex()].checkMatrix();
+	}
+
+	@Benchmark
+	public int validateGrid() {
+		return validator.validate(solvedGrids[nextIndex()], true);
+	}
+
+	@Benchmark
+	public boolean checkUnfullMatrix() {
+		return puzzles[nextIndex()].checkUnfullMatrix();
+	}
+
+	@Benchmark
+	public Object calcOptValueList() {
+		SudokuMatrix m = puzzles[next];
+		int x = cell / SudokuMatrix.SQUARE_LENGTH, y = cell % SudokuMatrix.SQUARE_LENGTH;
+		nextCell();
+		return m.calcOptValueList(x, y);
+	}
+
+	@Benchmark
+	public int calcCandidates() {
+		SudokuMatrix m = puzzles[next];
+		int x = cell / SudokuMatrix.SQUARE_LENGTH, y = cell % SudokuMatrix.SQUARE_LENGTH;
+		nextCell();
+		return m.calcCandidates(x, y);
+	}
+
+	private int nextIndex() {
+		int i = next;
+		next = (next + 1) % puzzles.length;
+		return i;
+	}
+
+	private void nextCell() {
+		if (++cell == SudokuMatrix.SQUARE_LENGTH * SudokuMatrix.SQUARE_LENGTH) {
+			cell = 0;
+			nextIndex();
+		}
+	}
+}
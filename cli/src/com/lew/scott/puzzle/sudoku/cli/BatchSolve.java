@@ -0,0 +1,206 @@
+package com.lew.scott.puzzle.sudoku.cli;
+
+import java.io.BufferedOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ForkJoinPool;
+
+import com.lew.scott.puzzle.sudoku.data.ParallelBatchSolver;
+import com.lew.scott.puzzle.sudoku.data.SudokuMatrix;
+
+/**
+ * 批量求解命令行工具。
+ *
+ * <pre>
+ * sudoku-batch [-e propagation|dlx] [-t 线程数] [-o 输出文件] [-q] [输入文件|-]
+ * </pre>
+ *
+ * 从文件或标准输入读取81字符一行的谜题，每个谜题输出一行：解出时为81位数字的解，
+ * 无解时为原谜题加" failed"，格式错误的行输出"# line N malformed"，输出的行与输入的谜题一一对应。
+ * 结束时在标准错误输出统计信息。单线程时整个过程只用一个SudokuMatrix对象，每行不创建String和int[][]；
+ * 多线程时按批读入，用{@link ParallelBatchSolver}并行求解，每个工作线程一个SudokuMatrix，输出顺序不变
+ */
+public class BatchSolve {
+
+	private static final int CELL_COUNT = SudokuMatrix.SQUARE_LENGTH * SudokuMatrix.SQUARE_LENGTH;
+	private static final byte[] FAILED = " failed\n".getBytes();
+	private static final int CHUNK_SIZE = 8192; // 多线程时每批的谜题数
+
+	private int engine = SudokuMatrix.ENGINE_PROPAGATION;
+	private String inputPath = "-";
+	private String outputPath = "-";
+	private int threads = 1;
+	private boolean quiet; // 不输出解，只输出统计
+
+	private long total;
+	private long solved;
+	private long failed;
+	private long malformed;
+
+	public static void main(String[] args) {
+		BatchSolve batch = new BatchSolve();
+		if (!batch.parseArgs(args)) {
+			System.err.println("用法: sudoku-batch [-e propagation|dlx] [-t 线程数] [-o 输出文件] [-q] [输入文件|-]");
+			System.exit(2);
+		}
+		try {
+			batch.run();
+		} catch (IOException e) {
+			System.err.println("读写失败: " + e.getMessage());
+			System.exit(1);
+		}
+	}
+
+	private boolean parseArgs(String[] args) {
+		for (int i = 0; i < args.length; i++) {
+			String a = args[i];
+			if ("-e".equals(a) && i + 1 < args.length) {
+				String e = args[++i];
+				if ("dlx".equals(e)) {
+					engine = SudokuMatrix.ENGINE_DANCING_LINKS;
+				} else if ("propagation".equals(e)) {
+					engine = SudokuMatrix.ENGINE_PROPAGATION;
+				} else {
+					return false;
+				}
+			} else if ("-t".equals(a) && i + 1 < args.length) {
+				try {
+					threads = Integer.parseInt(args[++i]);
+				} catch (NumberFormatException e) {
+					return false;
+				}
+				if (threads < 1) {
+					return false;
+				}
+			} else if ("-o".equals(a) && i + 1 < args.length) {
+				outputPath = args[++i];
+			} else if ("-q".equals(a)) {
+				quiet = true;
+			} else if (a.startsWith("-") && a.length() > 1) {
+				return false;
+			} else {
+				inputPath = a;
+			}
+		}
+		return true;
+	}
+
+	private void run() throws IOException {
+		InputStream in = "-".equals(inputPath) ? System.in : new FileInputStream(inputPath);
+		OutputStream out = new BufferedOutputStream("-".equals(outputPath) ? System.out
+				: new FileOutputStream(outputPath), 1 << 16);
+		byte[] line = new byte[CELL_COUNT + 1];
+		line[CELL_COUNT] = '\n';
+
+		long start = System.nanoTime();
+		PuzzleReader reader = new PuzzleReader(in);
+		try {
+			if (threads > 1) {
+				runParallel(reader, out, line);
+			} else {
+				runSingle(reader, out, line);
+			}
+		} finally {
+			reader.close();
+			out.flush();
+			if (!"-".equals(outputPath)) {
+				out.close();
+			}
+		}
+		printSummary(System.nanoTime() - start);
+	}
+
+	private void runSingle(PuzzleReader reader, OutputStream out, byte[] line) throws IOException {
+		SudokuMatrix solver = new SudokuMatrix();
+		solver.setSolverEngine(engine);
+		int[] grid = new int[CELL_COUNT];
+		int status;
+		while ((status = reader.next(grid)) != PuzzleReader.EOF) {
+			if (status == PuzzleReader.MALFORMED) {
+				writeMalformed(out, reader.getLineNumber());
+				continue;
+			}
+			writeResult(out, grid, solver.solveGrid(grid), line);
+		}
+	}
+
+	private void runParallel(PuzzleReader reader, OutputStream out, byte[] line) throws IOException {
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		try {
+			ParallelBatchSolver batchSolver = new ParallelBatchSolver(pool, engine);
+			int[][] chunk = new int[CHUNK_SIZE][CELL_COUNT]; // 只放格式正确的谜题
+			boolean[] solved = new boolean[CHUNK_SIZE];
+			long[] malformedLines = new long[CHUNK_SIZE]; // 格式错误的行号
+			int[] malformedAt = new int[CHUNK_SIZE]; // 格式错误的行在chunk中第几个谜题之前
+			while (true) {
+				int n = 0, bad = 0, status;
+				while (n < CHUNK_SIZE && bad < CHUNK_SIZE && (status = reader.next(chunk[n])) != PuzzleReader.EOF) {
+					if (status == PuzzleReader.MALFORMED) {
+						malformedAt[bad] = n;
+						malformedLines[bad++] = reader.getLineNumber();
+					} else {
+						n++;
+					}
+				}
+				if (n == 0 && bad == 0) {
+					break;
+				}
+				batchSolver.solveAll(chunk, n, solved);
+				int b = 0;
+				for (int i = 0; i < n; i++) {
+					while (b < bad && malformedAt[b] == i) {
+						writeMalformed(out, malformedLines[b++]);
+					}
+					writeResult(out, chunk[i], solved[i], line);
+				}
+				while (b < bad) {
+					writeMalformed(out, malformedLines[b++]);
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	private void writeMalformed(OutputStream out, long lineNumber) throws IOException {
+		total++;
+		malformed++;
+		failed++;
+		if (!quiet) {
+			out.write(("# line " + lineNumber + " malformed\n").getBytes());
+		}
+	}
+
+	/**
+	 * 输出一个谜题的结果，求解失败时grid仍是原谜题
+	 */
+	private void writeResult(OutputStream out, int[] grid, boolean ok, byte[] line) throws IOException {
+		total++;
+		if (ok) {
+			solved++;
+		} else {
+			failed++;
+		}
+		if (quiet) {
+			return;
+		}
+		for (int i = 0; i < CELL_COUNT; i++) {
+			line[i] = (byte) (grid[i] == SudokuMatrix.UNSET_VALUE ? '.' : '0' + grid[i]);
+		}
+		if (ok) {
+			out.write(line);
+		} else {
+			out.write(line, 0, CELL_COUNT);
+			out.write(FAILED);
+		}
+	}
+
+	private void printSummary(long nanos) {
+		double seconds = nanos / 1e9;
+		System.err.println(String.format("共%d个谜题，解出%d个，失败%d个(格式错误%d个)，用时%.3f秒，%.0f个/秒",
+				total, solved, failed, malformed, seconds, seconds > 0 ? total / seconds : 0.0));
+	}
+}
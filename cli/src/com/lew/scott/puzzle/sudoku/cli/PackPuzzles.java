@@ -0,0 +1,126 @@
+package com.lew.scott.puzzle.sudoku.cli;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.lew.scott.puzzle.sudoku.data.SudokuMatrix;
+import com.lew.scott.puzzle.sudoku.store.PuzzleStoreWriter;
+
+/**
+ * 把81字符一行的谜题文件打包成内存映射的谜题库。
+ *
+ * <pre>
+ * sudoku-pack -o 谜题库文件 [-d 难度] 输入文件|- [[-d 难度] 输入文件 ...]
+ * </pre>
+ *
+ * -d指定其后输入文件中谜题的难度(默认0)，格式错误的行跳过。结束时在标准错误输出统计信息
+ */
+public class PackPuzzles {
+
+	private static final int CELL_COUNT = SudokuMatrix.SQUARE_LENGTH * SudokuMatrix.SQUARE_LENGTH;
+	private static final String USAGE = "用法: sudoku-pack -o 谜题库文件 [-d 难度] 输入文件|- [[-d 难度] 输入文件 ...]";
+
+	private String outputPath;
+	private final String[] inputPaths;
+	private final int[] inputDifficulty; // 每个输入文件中谜题的难度
+	private int inputCount;
+
+	private long packed;
+	private long malformed;
+
+	private PackPuzzles(int maxInputs) {
+		inputPaths = new String[maxInputs];
+		inputDifficulty = new int[maxInputs];
+	}
+
+	public static void main(String[] args) {
+		PackPuzzles pack = new PackPuzzles(args.length);
+		// 先检查全部参数和输入文件，出错时还没有创建任何文件
+		if (!pack.parseArgs(args)) {
+			System.err.println(USAGE);
+			System.exit(2);
+		}
+		String missing = pack.findMissingInput();
+		if (missing != null) {
+			System.err.println("找不到输入文件: " + missing);
+			System.exit(2);
+		}
+		try {
+			pack.run();
+		} catch (IOException e) {
+			System.err.println("读写失败: " + e.getMessage());
+			System.exit(1);
+		}
+	}
+
+	private boolean parseArgs(String[] args) {
+		int difficulty = 0;
+		for (int i = 0; i < args.length; i++) {
+			String a = args[i];
+			if ("-o".equals(a) && i + 1 < args.length) {
+				outputPath = args[++i];
+			} else if ("-d".equals(a) && i + 1 < args.length) {
+				try {
+					difficulty = Integer.parseInt(args[++i]);
+				} catch (NumberFormatException e) {
+					return false;
+				}
+				if (difficulty < 0 || difficulty > PuzzleStoreWriter.MAX_DIFFICULTY) {
+					return false;
+				}
+			} else if (a.startsWith("-") && a.length() > 1) {
+				return false;
+			} else {
+				inputPaths[inputCount] = a;
+				inputDifficulty[inputCount++] = difficulty;
+			}
+		}
+		return outputPath != null && inputCount > 0;
+	}
+
+	/**
+	 * @return 第一个不存在的输入文件，都存在时返回null
+	 */
+	private String findMissingInput() {
+		for (int k = 0; k < inputCount; k++) {
+			String path = inputPaths[k];
+			if (!"-".equals(path) && !new File(path).isFile()) {
+				return path;
+			}
+		}
+		return null;
+	}
+
+	private void run() throws IOException {
+		long start = System.nanoTime();
+		PuzzleStoreWriter writer = new PuzzleStoreWriter(new File(outputPath));
+		try {
+			int[] grid = new int[CELL_COUNT];
+			for (int k = 0; k < inputCount; k++) {
+				String path = inputPaths[k];
+				InputStream in = "-".equals(path) ? System.in : new FileInputStream(path);
+				PuzzleReader reader = new PuzzleReader(in);
+				try {
+					int status;
+					while ((status = reader.next(grid)) != PuzzleReader.EOF) {
+						if (status == PuzzleReader.MALFORMED) {
+							malformed++;
+							continue;
+						}
+						writer.add(grid, inputDifficulty[k]);
+						packed++;
+					}
+				} finally {
+					reader.close();
+				}
+			}
+			writer.close();
+		} finally {
+			writer.abort(); // 成功close后什么也不做；否则删除临时文件
+		}
+		System.err.println(String.format("打包%d个谜题，跳过格式错误的%d行，用时%.3f秒", packed, malformed,
+				(System.nanoTime() - start) / 1e9));
+	}
+}
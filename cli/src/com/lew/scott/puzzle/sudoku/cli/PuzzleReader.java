@@ -0,0 +1,116 @@
+package com.lew.scott.puzzle.sudoku.cli;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.lew.scott.puzzle.sudoku.data.SudokuMatrix;
+
+/**
+ * 逐行读取81字符一行格式的谜题：'1'~'9'是数字，'0'和'.'是空白；第81个字符之后的内容忽略，
+ * 空行和以'#'开头的行跳过。直接在字节缓冲区上解析到按行展开的int[]，不为每行创建String
+ */
+public class PuzzleReader implements Closeable {
+
+	public static final int EOF = -1; // 没有更多的谜题
+	public static final int MALFORMED = 0; // 这一行不是合法的谜题
+	public static final int OK = 1;
+
+	private static final int CELL_COUNT = SudokuMatrix.SQUARE_LENGTH * SudokuMatrix.SQUARE_LENGTH;
+
+	private final InputStream in;
+	private final byte[] buf;
+	private int pos;
+	private int limit;
+	private long lineNumber;
+
+	public PuzzleReader(InputStream in) {
+		this(in, 1 << 16);
+	}
+
+	public PuzzleReader(InputStream in, int bufferSize) {
+		this.in = in;
+		this.buf = new byte[bufferSize];
+	}
+
+	/**
+	 * 当前读到的行号，从1开始
+	 *
+	 * @return
+	 */
+	public long getLineNumber() {
+		return lineNumber;
+	}
+
+	/**
+	 * 读取下一个谜题到grid
+	 *
+	 * @param grid
+	 *            长度为81的数组
+	 * @return {@link #OK}, {@link #MALFORMED}或{@link #EOF}
+	 * @throws IOException
+	 */
+	public int next(int[] grid) throws IOException {
+		while (true) {
+			int b = read();
+			if (b < 0) {
+				return EOF;
+			}
+			lineNumber++;
+			if (b == '\n') {// 空行
+				continue;
+			}
+			if (b == '\r') {
+				skipLine();
+				continue;
+			}
+			if (b == '#') {// 注释行
+				skipLine();
+				continue;
+			}
+			int count = 0;
+			boolean malformed = false;
+			while (b >= 0 && b != '\n' && b != '\r') {
+				if (count < CELL_COUNT) {
+					if (b >= '1' && b <= '9') {
+						grid[count] = b - '0';
+					} else if (b == '0' || b == '.') {
+						grid[count] = SudokuMatrix.UNSET_VALUE;
+					} else {
+						malformed = true;
+					}
+					count++;
+				}
+				b = read();
+			}
+			if (b == '\r') {
+				skipLine();
+			}
+			return (malformed || count < CELL_COUNT) ? MALFORMED : OK;
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+
+	private int read() throws IOException {
+		if (pos == limit) {
+			limit = in.read(buf, 0, buf.length);
+			pos = 0;
+			if (limit <= 0) {
+				limit = 0;
+				return -1;
+			}
+		}
+		return buf[pos++] & 0xFF;
+	}
+
+	private void skipLine() throws IOException {
+		int b;
+		do {
+			b = read();
+		} while (b >= 0 && b != '\n');
+	}
+}
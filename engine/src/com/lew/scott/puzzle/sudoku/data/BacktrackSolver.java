@@ -0,0 +1,256 @@
+package com.lew.scott.puzzle.sudoku.data;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 深度优先回溯求解器。
+ *
+ * 每一步选择可选值最少的单元格(MRV)，用行、列、小矩阵的已用数字掩码计算可选值；
+ * 回溯时按撤销记录(已填单元格的顺序和每层剩余的可选值)恢复，不复制单元格矩阵。
+ * 求解器对象可以重复使用，求解过程中不分配内存；但不是线程安全的。
+ */
+public class BacktrackSolver {
+
+	private final int length; // 数独矩阵边长
+	private final int cellCount; // 单元格数量
+	private final int allMask; // 全部数字的掩码
+
+	private final int[] rowOf; // 单元格所在的行
+	private final int[] colOf; // 单元格所在的列
+	private final int[] boxOf; // 单元格所在的小矩阵
+
+	private final int[] rowUsed; // 每行已用数字的掩码
+	private final int[] colUsed; // 每列已用数字的掩码
+	private final int[] boxUsed; // 每个小矩阵已用数字的掩码
+
+	private final int[] grid; // 搜索中的矩阵
+	private final int[] solution; // 找到的第一个解
+	private final int[] empty; // 待填的单元格，[0, depth)是已经填了的
+	private final int[] remaining; // 撤销记录：每一层还没有尝试的可选值
+	private int emptyCount;
+	private int excludeCell = -1; // 搜索时排除某个单元格的某个值，见hasSolutionExcluding
+	private int excludeMask = -1;
+	private Random random; // 不为null时按随机顺序尝试可选值，见fillRandom
+	private AtomicBoolean cancelFlag; // 不为null时，搜索中定期检查，被设为true就放弃搜索
+
+	public BacktrackSolver() {
+		this(SudokuMatrix.SQUARE_ROOT);
+	}
+
+	/**
+	 * 边长为root*root的数独矩阵
+	 *
+	 * @param root
+	 *            小矩阵边长，[{@link SudokuMatrix#MIN_ROOT}, {@link SudokuMatrix#MAX_ROOT}]
+	 */
+	public BacktrackSolver(int root) {
+		length = root * root;
+		cellCount = length * length;
+		allMask = Candidates.all(length);
+		rowOf = new int[cellCount];
+		colOf = new int[cellCount];
+		boxOf = new int[cellCount];
+		for (int i = 0; i < cellCount; i++) {
+			int x = i / length, y = i % length;
+			rowOf[i] = x;
+			colOf[i] = y;
+			boxOf[i] = x / root * root + y / root;
+		}
+		rowUsed = new int[length];
+		colUsed = new int[length];
+		boxUsed = new int[length];
+		grid = new int[cellCount];
+		solution = new int[cellCount];
+		empty = new int[cellCount];
+		remaining = new int[cellCount];
+	}
+
+	/**
+	 * 求解按行展开的矩阵，0表示待求解。成功时把结果写回values，失败时values不变
+	 *
+	 * @param values
+	 * @return 是否有解
+	 */
+	public boolean solve(int[] values) {
+		if (search(values, 1) == 0) {
+			return false;
+		}
+		System.arraycopy(solution, 0, values, 0, cellCount);
+		return true;
+	}
+
+	/**
+	 * 设定取消标志，并行搜索时由其他线程设为true以中止本线程的搜索，null表示不检查
+	 *
+	 * @param cancelFlag
+	 */
+	public void setCancelFlag(AtomicBoolean cancelFlag) {
+		this.cancelFlag = cancelFlag;
+	}
+
+	/**
+	 * 计算解的个数，达到limit时立即停止
+	 *
+	 * @param values
+	 * @param limit
+	 * @return [0, limit]之间的解的个数
+	 */
+	public int countSolutions(int[] values, int limit) {
+		return search(values, limit);
+	}
+
+	/**
+	 * 随机填充矩阵的空白单元格：仍然按可选值最少的顺序选单元格，但按随机顺序尝试可选值。
+	 * 传入空矩阵即可生成一个随机的合法数独矩阵
+	 *
+	 * @param values
+	 * @param random
+	 * @return 是否有解
+	 */
+	public boolean fillRandom(int[] values, Random random) {
+		this.random = random;
+		int count = search(values, 1);
+		this.random = null;
+		if (count == 0) {
+			return false;
+		}
+		System.arraycopy(solution, 0, values, 0, cellCount);
+		return true;
+	}
+
+	/**
+	 * 是否存在单元格cell的值不是value的解，cell必须是待求解的单元格。
+	 * 已知谜题有唯一解且解中cell为value时，挖去cell后谜题仍然唯一，当且仅当这里返回false
+	 *
+	 * @param values
+	 * @param cell
+	 * @param value
+	 * @return
+	 */
+	public boolean hasSolutionExcluding(int[] values, int cell, int value) {
+		excludeCell = cell;
+		excludeMask = ~(1 << value);
+		int count = search(values, 1);
+		excludeCell = -1;
+		excludeMask = -1;
+		return count > 0;
+	}
+
+	/**
+	 * 载入矩阵，初始化已用数字掩码和待填单元格
+	 *
+	 * @param values
+	 * @return 如果已有数字互相冲突，返回false
+	 */
+	private boolean load(int[] values) {
+		for (int i = 0; i < length; i++) {
+			rowUsed[i] = colUsed[i] = boxUsed[i] = 0;
+		}
+		emptyCount = 0;
+		for (int i = 0; i < cellCount; i++) {
+			int v = values[i];
+			if (v < 1 || v > length) {
+				grid[i] = SudokuMatrix.UNSET_VALUE;
+				empty[emptyCount++] = i;
+				continue;
+			}
+			int bit = 1 << v;
+			if (((rowUsed[rowOf[i]] | colUsed[colOf[i]] | boxUsed[boxOf[i]]) & bit) != 0) {
+				return false;
+			}
+			grid[i] = v;
+			rowUsed[rowOf[i]] |= bit;
+			colUsed[colOf[i]] |= bit;
+			boxUsed[boxOf[i]] |= bit;
+		}
+		return true;
+	}
+
+	private int search(int[] values, int limit) {
+		if (limit < 1 || !load(values)) {
+			return 0;
+		}
+		if (emptyCount == 0) {
+			System.arraycopy(grid, 0, solution, 0, cellCount);
+			return 1;
+		}
+		int count = 0;
+		int depth = 0;
+		int steps = 0;
+		remaining[0] = selectCell(0);
+		while (depth >= 0) {
+			if ((++steps & 0x3FF) == 0 && cancelFlag != null && cancelFlag.get()) {
+				break;// 被取消了
+			}
+			int cell = empty[depth];
+			// 撤销这一层上次填的数字
+			int old = grid[cell];
+			if (old != SudokuMatrix.UNSET_VALUE) {
+				int bit = ~(1 << old);
+				rowUsed[rowOf[cell]] &= bit;
+				colUsed[colOf[cell]] &= bit;
+				boxUsed[boxOf[cell]] &= bit;
+				grid[cell] = SudokuMatrix.UNSET_VALUE;
+			}
+			int rem = remaining[depth];
+			if (rem == 0) {// 这一层的可选值都试过了，回退
+				depth--;
+				continue;
+			}
+			int bit;
+			if (random == null) {
+				bit = rem & -rem;
+			} else {
+				bit = 1 << Candidates.nth(rem, random.nextInt(Integer.bitCount(rem)));
+			}
+			remaining[depth] = rem ^ bit;
+			grid[cell] = Integer.numberOfTrailingZeros(bit);
+			rowUsed[rowOf[cell]] |= bit;
+			colUsed[colOf[cell]] |= bit;
+			boxUsed[boxOf[cell]] |= bit;
+			if (depth + 1 == emptyCount) {// 找到一个解
+				if (count == 0) {
+					System.arraycopy(grid, 0, solution, 0, cellCount);
+				}
+				if (++count >= limit) {
+					break;
+				}
+				continue;
+			}
+			depth++;
+			remaining[depth] = selectCell(depth);
+		}
+		return count;
+	}
+
+	/**
+	 * 在还没有填的单元格中选出可选值最少的，交换到empty[depth]
+	 *
+	 * @param depth
+	 * @return 该单元格的可选值掩码
+	 */
+	private int selectCell(int depth) {
+		int best = depth, bestMask = 0, bestCount = Integer.MAX_VALUE;
+		for (int k = depth; k < emptyCount; k++) {
+			int c = empty[k];
+			int mask = allMask & ~(rowUsed[rowOf[c]] | colUsed[colOf[c]] | boxUsed[boxOf[c]]);
+			if (c == excludeCell) {
+				mask &= excludeMask;
+			}
+			int n = Integer.bitCount(mask);
+			if (n < bestCount) {
+				best = k;
+				bestMask = mask;
+				bestCount = n;
+				if (n <= 1) {
+					break;
+				}
+			}
+		}
+		int tmp = empty[depth];
+		empty[depth] = empty[best];
+		empty[best] = tmp;
+		return bestMask;
+	}
+}
@@ -0,0 +1,236 @@
+package com.lew.scott.puzzle.sudoku.data;
+
+/**
+ * 按技巧求解时的状态：按行展开的数字和每个单元格的可选值掩码，以及域和相关单元格的下标表。
+ *
+ * 域共3*length个：[0,length)是行，[length,2*length)是列，[2*length,3*length)是root*root小矩阵，
+ * 每个域按行优先顺序列出length个单元格。
+ * 求解和删除可选值都通过{@link #assign(int, int, int)}和{@link #eliminate(int, int, int)}，
+ * 设定了回调时逐个报告。对象可以重复使用，不是线程安全的。
+ */
+public class CandidateBoard {
+
+	public final int length; // 数独矩阵边长
+	public final int root; // 数独矩阵边长平方根
+	public final int cellCount;
+	public final int allMask;
+
+	final int[][] units; // 每个域的单元格
+	final int[][] peers; // 每个单元格所在的行、列、小矩阵中其他的单元格
+	final int[] rowOf;
+	final int[] colOf;
+	final int[] boxOf;
+
+	final int[] values;
+	final int[] candidates;
+	private final int[] unitUsed; // 载入时每个域已用数字的掩码
+	private int emptyCount;
+	private boolean contradiction; // 有空白单元格没有可选值了
+	private TechniqueCallback callback;
+
+	public CandidateBoard() {
+		this(SudokuMatrix.SQUARE_ROOT);
+	}
+
+	/**
+	 * 边长为root*root的数独矩阵
+	 *
+	 * @param root
+	 *            小矩阵边长，[{@link SudokuMatrix#MIN_ROOT}, {@link SudokuMatrix#MAX_ROOT}]
+	 */
+	public CandidateBoard(int root) {
+		this.root = root;
+		length = root * root;
+		cellCount = length * length;
+		allMask = Candidates.all(length);
+		rowOf = new int[cellCount];
+		colOf = new int[cellCount];
+		boxOf = new int[cellCount];
+		units = new int[length * 3][length];
+		int[] filled = new int[length * 3];
+		for (int i = 0; i < cellCount; i++) {
+			int x = i / length, y = i % length;
+			rowOf[i] = x;
+			colOf[i] = y;
+			boxOf[i] = x / root * root + y / root;
+			units[x][filled[x]++] = i;
+			units[length + y][filled[length + y]++] = i;
+			int b = length * 2 + boxOf[i];
+			units[b][filled[b]++] = i;
+		}
+		int peerCount = (length - 1) * 2 + (length - 1) - (root - 1) * 2;
+		peers = new int[cellCount][peerCount];
+		for (int i = 0; i < cellCount; i++) {
+			int k = 0;
+			for (int j = 0; j < cellCount; j++) {
+				if (j != i && (rowOf[j] == rowOf[i] || colOf[j] == colOf[i] || boxOf[j] == boxOf[i])) {
+					peers[i][k++] = j;
+				}
+			}
+		}
+		values = new int[cellCount];
+		candidates = new int[cellCount];
+		unitUsed = new int[length * 3];
+	}
+
+	public void setCallback(TechniqueCallback callback) {
+		this.callback = callback;
+	}
+
+	/**
+	 * 载入按行展开的矩阵，0表示未填，由已填的数字计算可选值
+	 *
+	 * @param grid
+	 * @return 已填的数字互相冲突或超出范围时返回false
+	 */
+	public boolean load(int[] grid) {
+		int[] used = unitUsed;
+		for (int k = 0; k < used.length; k++) {
+			used[k] = 0;
+		}
+		emptyCount = 0;
+		contradiction = false;
+		for (int i = 0; i < cellCount; i++) {
+			int v = grid[i];
+			values[i] = v;
+			if (v == SudokuMatrix.UNSET_VALUE) {
+				emptyCount++;
+				continue;
+			}
+			if (v < 1 || v > length) {
+				return false;
+			}
+			int bit = 1 << v;
+			int r = rowOf[i], c = length + colOf[i], b = length * 2 + boxOf[i];
+			if (((used[r] | used[c] | used[b]) & bit) != 0) {
+				return false;
+			}
+			used[r] |= bit;
+			used[c] |= bit;
+			used[b] |= bit;
+		}
+		for (int i = 0; i < cellCount; i++) {
+			if (values[i] != SudokuMatrix.UNSET_VALUE) {
+				candidates[i] = 0;
+				continue;
+			}
+			candidates[i] = allMask & ~(used[rowOf[i]] | used[length + colOf[i]] | used[length * 2 + boxOf[i]]);
+			if (candidates[i] == 0) {
+				contradiction = true;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 载入按行展开的矩阵和给定的可选值掩码(已填的单元格忽略)，用于继续已经部分推理过的状态
+	 *
+	 * @param grid
+	 * @param masks
+	 */
+	public void load(int[] grid, int[] masks) {
+		emptyCount = 0;
+		contradiction = false;
+		for (int i = 0; i < cellCount; i++) {
+			values[i] = grid[i];
+			if (grid[i] == SudokuMatrix.UNSET_VALUE) {
+				emptyCount++;
+				candidates[i] = masks[i];
+				if (masks[i] == 0) {
+					contradiction = true;
+				}
+			} else {
+				candidates[i] = 0;
+			}
+		}
+	}
+
+	/**
+	 * 用技巧technique求出单元格cell的值v，并从相关单元格的可选值中删除v
+	 *
+	 * @param technique
+	 * @param cell
+	 * @param v
+	 */
+	public void assign(int technique, int cell, int v) {
+		values[cell] = v;
+		candidates[cell] = 0;
+		emptyCount--;
+		int x = rowOf[cell], y = colOf[cell];
+		if (callback != null) {
+			callback.solveCellCallback(x, y, v);
+		}
+		int bit = 1 << v;
+		int[] p = peers[cell];
+		for (int k = 0; k < p.length; k++) {
+			int j = p[k];
+			if ((candidates[j] & bit) != 0) {
+				candidates[j] &= ~bit;
+				if (candidates[j] == 0) {
+					contradiction = true;
+				}
+			}
+		}
+		if (callback != null) {
+			callback.reduceCellCallback(x, y, v);
+		}
+	}
+
+	/**
+	 * 用技巧technique从单元格cell的可选值中删除mask
+	 *
+	 * @param technique
+	 * @param cell
+	 * @param mask
+	 * @return 是否真的删除了可选值
+	 */
+	public boolean eliminate(int technique, int cell, int mask) {
+		mask &= candidates[cell];
+		if (mask == 0) {
+			return false;
+		}
+		candidates[cell] &= ~mask;
+		if (candidates[cell] == 0) {
+			contradiction = true;
+		}
+		if (callback != null) {
+			callback.eliminateCallback(technique, rowOf[cell], colOf[cell], mask);
+		}
+		return true;
+	}
+
+	public int getValue(int cell) {
+		return values[cell];
+	}
+
+	public int getCandidates(int cell) {
+		return candidates[cell];
+	}
+
+	/**
+	 * 未填的单元格数
+	 *
+	 * @return
+	 */
+	public int getEmptyCount() {
+		return emptyCount;
+	}
+
+	/**
+	 * 是否已出现矛盾(某个空白单元格没有可选值)
+	 *
+	 * @return
+	 */
+	public boolean hasContradiction() {
+		return contradiction;
+	}
+
+	/**
+	 * 把数字复制到按行展开的数组
+	 *
+	 * @param dst
+	 */
+	public void copyValues(int[] dst) {
+		System.arraycopy(values, 0, dst, 0, cellCount);
+	}
+}
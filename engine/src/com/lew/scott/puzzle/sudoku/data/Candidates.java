@@ -0,0 +1,100 @@
+package com.lew.scott.puzzle.sudoku.data;
+
+import java.util.ArrayList;
+
+/**
+ * 可选值位掩码的工具方法。数字v对应第v位(1 << v)，第0位不用，
+ * 所以求解时不需要装箱，也不需要分配内存。
+ */
+public final class Candidates {
+
+	private Candidates() {
+	}
+
+	/**
+	 * 数字v对应的位
+	 *
+	 * @param v
+	 * @return
+	 */
+	public static int bit(int v) {
+		return 1 << v;
+	}
+
+	/**
+	 * 数字[1 ~ length]全部可选时的掩码
+	 *
+	 * @param length
+	 * @return
+	 */
+	public static int all(int length) {
+		return ((1 << length) - 1) << 1;
+	}
+
+	/**
+	 * 可选值个数
+	 *
+	 * @param mask
+	 * @return
+	 */
+	public static int count(int mask) {
+		return Integer.bitCount(mask);
+	}
+
+	/**
+	 * 第n个(从0开始)可选值，用于随机选值
+	 *
+	 * @param mask
+	 * @param n
+	 * @return
+	 */
+	public static int nth(int mask, int n) {
+		for (int m = mask; m != 0; m &= m - 1) {
+			if (n-- == 0) {
+				return Integer.numberOfTrailingZeros(m);
+			}
+		}
+		return SudokuMatrix.UNSET_VALUE;
+	}
+
+	/**
+	 * 是否包含数字v
+	 *
+	 * @param mask
+	 * @param v
+	 * @return
+	 */
+	public static boolean contains(int mask, int v) {
+		return (mask & (1 << v)) != 0;
+	}
+
+	/**
+	 * 转换为从小到大的可选值列表，仅用于界面显示等非关键路径
+	 *
+	 * @param mask
+	 * @return
+	 */
+	public static ArrayList<Integer> toList(int mask) {
+		ArrayList<Integer> al = new ArrayList<Integer>(Integer.bitCount(mask));
+		for (int m = mask; m != 0; m &= m - 1) {
+			al.add(Integer.numberOfTrailingZeros(m));
+		}
+		return al;
+	}
+
+	/**
+	 * 由可选值列表转换为掩码
+	 *
+	 * @param list
+	 * @return
+	 */
+	public static int fromList(ArrayList<Integer> list) {
+		int mask = 0;
+		if (list != null) {
+			for (int i = 0; i < list.size(); i++) {
+				mask |= 1 << list.get(i);
+			}
+		}
+		return mask;
+	}
+}
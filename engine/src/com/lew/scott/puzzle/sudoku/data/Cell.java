@@ -6,7 +6,7 @@ public class Cell {
 	private int value; // 当前数独总单元格中的数字，0为空
 	private boolean preset; // 是否是预设定的，如果不是则需要求解。
 	private boolean solved; // 是否已经被解决
-	private ArrayList<Integer> optValueList; // 如果不是预设定的，可选值列表
+	private int candidates; // 如果不是预设定的，可选值掩码，见{@link Candidates}
 
 	public Cell() {
 
@@ -18,7 +18,7 @@ public class Cell {
 	 * @param value
 	 */
 	public Cell(int value) {
-		if (value < 1 || value > SudokuMatrix.SQUARE_LENGTH) {
+		if (value < 1 || value > SudokuMatrix.MAX_LENGTH) {
 			this.value = SudokuMatrix.UNSET_VALUE;
 			this.preset = false;
 		} else {
@@ -33,14 +33,14 @@ public class Cell {
 	 * @param value
 	 */
 	public void initByValue(int value) {
-		if (value < 1 || value > SudokuMatrix.SQUARE_LENGTH) {
+		if (value < 1 || value > SudokuMatrix.MAX_LENGTH) {
 			this.value = SudokuMatrix.UNSET_VALUE;
 			this.preset = false;
 		} else {
 			this.value = value;
 			this.preset = true;
 		}
-		this.optValueList = null;
+		this.candidates = 0;
 		this.solved = false;
 	}
 
@@ -68,42 +68,71 @@ public class Cell {
 		this.solved = solved;
 	}
 
-	public ArrayList<Integer> getOptValueList() {
-		return optValueList;
+	/**
+	 * 可选值掩码，数字v对应第v位
+	 * 
+	 * @return
+	 */
+	public int getCandidates() {
+		return candidates;
 	}
 
-	public void setOptValueList(ArrayList<Integer> optValueList) {
-		this.optValueList = optValueList;
+	public void setCandidates(int candidates) {
+		this.candidates = candidates;
 	}
 
 	/**
-	 * 从可选值列表中选出一个值，用于生成数独矩阵{@link SudokuMatrix#generateValidMatrix()}
+	 * 是否可选数字v
 	 * 
+	 * @param v
 	 * @return
 	 */
-	public int pickOneOptValue() {
-		if (this.optValueList != null) {
-			return this.optValueList.remove(this.optValueList.size() - 1);
+	public boolean hasCandidate(int v) {
+		return (candidates & (1 << v)) != 0;
+	}
+
+	/**
+	 * 从可选值中移除数字v
+	 * 
+	 * @param v
+	 * @return 可选值是否发生了变化
+	 */
+	public boolean removeCandidate(int v) {
+		int old = candidates;
+		candidates &= ~(1 << v);
+		return old != candidates;
+	}
+
+	/**
+	 * 可选值列表，只用于界面显示；求解时请用{@link #getCandidates()}
+	 * 
+	 * @return
+	 */
+	public ArrayList<Integer> getOptValueList() {
+		if (preset || solved) {
+			return null;
 		}
-		return SudokuMatrix.UNSET_VALUE;
+		return Candidates.toList(candidates);
+	}
+
+	public void setOptValueList(ArrayList<Integer> optValueList) {
+		this.candidates = Candidates.fromList(optValueList);
 	}
 
 	/**
-	 * 检测可选值列表是否为空，用于生成数独矩阵{@link SudokuMatrix#generateValidMatrix()}
+	 * 检测可选值列表是否为空，为空时{@link SudokuMatrix#getCellCandidates(int, int)}重新计算可选值
 	 * 
 	 * @return
 	 */
 	public boolean isEmpty() {
-		return (this.optValueList == null || this.optValueList.isEmpty());
+		return this.candidates == 0;
 	}
 
 	/**
-	 * 清空可选值列表，用于生成数独矩阵{@link SudokuMatrix#generateValidMatrix()}
+	 * 清空可选值列表
 	 */
 	public void clear() {
-		if (this.optValueList != null) {
-			this.optValueList.clear();
-		}
+		this.candidates = 0;
 	}
 
 	/**
@@ -112,9 +141,7 @@ public class Cell {
 	 * @param v
 	 */
 	public void remove(int v) {
-		if (this.optValueList != null) {
-			this.optValueList.remove(new Integer(v));
-		}
+		this.candidates &= ~(1 << v);
 	}
 
 	/**
@@ -123,12 +150,12 @@ public class Cell {
 	 * @return
 	 */
 	public boolean checkIsSolved() {
-		if (this.optValueList != null) {
+		if (this.candidates != 0) {
 			// 当可选值只有一个时，标记为已解决
-			if (this.optValueList.size() == 1) {
-				this.value = this.optValueList.get(0);
+			if ((this.candidates & (this.candidates - 1)) == 0) {
+				this.value = Integer.numberOfTrailingZeros(this.candidates);
 				this.solved = true;
-				this.optValueList = null;
+				this.candidates = 0;
 				return true;
 			}
 			return false;
@@ -142,17 +169,17 @@ public class Cell {
 	 * @param value
 	 */
 	public void solveByValue(int value) {
-		if (value >= 1 && value <= SudokuMatrix.SQUARE_LENGTH) {
+		if (value >= 1 && value <= SudokuMatrix.MAX_LENGTH) {
 			this.value = value;
 			this.solved = true;
-			this.optValueList = null;
+			this.candidates = 0;
 		}
 	}
 
 	public void unset() {
 		this.value = SudokuMatrix.UNSET_VALUE;
 		this.preset = false;
-		this.optValueList = null;
+		this.candidates = 0;
 		this.solved = false;
 	}
 }
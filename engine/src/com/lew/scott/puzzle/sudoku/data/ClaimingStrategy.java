@@ -0,0 +1,45 @@
+package com.lew.scott.puzzle.sudoku.data;
+
+/**
+ * 行列区块摒除：一行(列)中某个数字的可选位置都在同一个root*root小矩阵，
+ * 这个小矩阵中其他行(列)的单元格不能再填这个数字
+ */
+public class ClaimingStrategy extends Strategy {
+
+	public ClaimingStrategy() {
+		super(Technique.CLAIMING);
+	}
+
+	@Override
+	public boolean apply(CandidateBoard board) {
+		int length = board.length;
+		for (int u = 0; u < length * 2; u++) {// 行和列
+			int[] line = board.units[u];
+			for (int v = 1; v <= length; v++) {
+				int bit = 1 << v;
+				int boxes = 0;
+				for (int k = 0; k < line.length; k++) {
+					if ((board.candidates[line[k]] & bit) != 0) {
+						boxes |= 1 << board.boxOf[line[k]];
+					}
+				}
+				if (boxes == 0 || (boxes & (boxes - 1)) != 0) {
+					continue;
+				}
+				int[] box = board.units[length * 2 + Integer.numberOfTrailingZeros(boxes)];
+				boolean achieved = false;
+				for (int k = 0; k < box.length; k++) {
+					int cell = box[k];
+					int lineOfCell = u < length ? board.rowOf[cell] : length + board.colOf[cell];
+					if (lineOfCell != u) {
+						achieved |= board.eliminate(getTechnique(), cell, bit);
+					}
+				}
+				if (achieved) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,267 @@
+package com.lew.scott.puzzle.sudoku.data;
+
+/**
+ * 舞蹈链(Dancing Links)精确覆盖求解器，即Knuth的X算法。
+ *
+ * 边长为length的数独被建模为4*length*length列(9*9时为324列)的精确覆盖矩阵：每个单元格有数字、每行有数字v、
+ * 每列有数字v、每个小矩阵有数字v各一列；每个候选(单元格, 数字)是一行，覆盖4列。
+ * 所有节点在构造时一次性分配在数组中，每次求解后把链表完全恢复，因此可以重复使用而不分配内存。
+ * 不是线程安全的。
+ */
+public class DancingLinksSolver {
+
+	private static final int ROOT = 0; // 列头链表的根节点
+
+	private final int length; // 数独矩阵边长
+	private final int cellCount; // 单元格数量
+	private final int columnCount; // 精确覆盖矩阵的列数
+
+	// 节点数组，下标[1, columnCount]是列头，之后是每个候选行的4个节点
+	private final int[] left;
+	private final int[] right;
+	private final int[] up;
+	private final int[] down;
+	private final int[] column; // 节点所在的列
+	private final int[] rowOf; // 节点所在的候选行
+	private final int[] size; // 每列中的节点数
+	private final int[] rowStart; // 每个候选行的第一个节点
+	private final boolean[] covered; // 列是否已被覆盖
+
+	private final int[] givens; // 预设数字选中的行的节点
+	private final int[] choices; // 搜索中每一层选中的节点
+	private final int[] solution; // 找到的第一个解
+
+	public DancingLinksSolver() {
+		this(SudokuMatrix.SQUARE_ROOT);
+	}
+
+	/**
+	 * 边长为root*root的数独矩阵
+	 *
+	 * @param root
+	 *            小矩阵边长，[{@link SudokuMatrix#MIN_ROOT}, {@link SudokuMatrix#MAX_ROOT}]
+	 */
+	public DancingLinksSolver(int root) {
+		length = root * root;
+		cellCount = length * length;
+		columnCount = 4 * cellCount;
+		int rowCount = cellCount * length;
+		int nodeCount = 1 + columnCount + 4 * rowCount;
+		left = new int[nodeCount];
+		right = new int[nodeCount];
+		up = new int[nodeCount];
+		down = new int[nodeCount];
+		column = new int[nodeCount];
+		rowOf = new int[nodeCount];
+		size = new int[columnCount + 1];
+		rowStart = new int[rowCount];
+		covered = new boolean[columnCount + 1];
+		givens = new int[cellCount];
+		choices = new int[cellCount];
+		solution = new int[cellCount];
+
+		// 列头
+		for (int c = 0; c <= columnCount; c++) {
+			left[c] = c - 1;
+			right[c] = c + 1;
+			up[c] = down[c] = c;
+			column[c] = c;
+		}
+		left[ROOT] = columnCount;
+		right[columnCount] = ROOT;
+
+		// 候选行：行号 = 单元格 * length + (数字 - 1)
+		int node = columnCount + 1;
+		int[] cols = new int[4];
+		for (int cell = 0; cell < cellCount; cell++) {
+			int x = cell / length, y = cell % length;
+			int b = x / root * root + y / root;
+			for (int d = 0; d < length; d++) {
+				int r = cell * length + d;
+				cols[0] = 1 + cell;
+				cols[1] = 1 + cellCount + x * length + d;
+				cols[2] = 1 + 2 * cellCount + y * length + d;
+				cols[3] = 1 + 3 * cellCount + b * length + d;
+				rowStart[r] = node;
+				for (int k = 0; k < 4; k++) {
+					int c = cols[k];
+					column[node] = c;
+					rowOf[node] = r;
+					// 插入到列的末尾
+					up[node] = up[c];
+					down[node] = c;
+					down[up[c]] = node;
+					up[c] = node;
+					size[c]++;
+					// 在行内形成环
+					left[node] = (k == 0) ? node + 3 : node - 1;
+					right[node] = (k == 3) ? node - 3 : node + 1;
+					node++;
+				}
+			}
+		}
+	}
+
+	/**
+	 * 求解按行展开的矩阵，0表示待求解。成功时把结果写回values，失败时values不变
+	 *
+	 * @param values
+	 * @return 是否有解
+	 */
+	public boolean solve(int[] values) {
+		if (search(values, 1) == 0) {
+			return false;
+		}
+		System.arraycopy(solution, 0, values, 0, cellCount);
+		return true;
+	}
+
+	/**
+	 * 计算解的个数，达到limit时立即停止
+	 *
+	 * @param values
+	 * @param limit
+	 * @return [0, limit]之间的解的个数
+	 */
+	public int countSolutions(int[] values, int limit) {
+		return search(values, limit);
+	}
+
+	private int search(int[] values, int limit) {
+		if (limit < 1) {
+			return 0;
+		}
+		// 选中预设数字对应的行
+		int givenCount = 0;
+		boolean conflict = false;
+		for (int cell = 0; cell < cellCount; cell++) {
+			int v = values[cell];
+			solution[cell] = SudokuMatrix.UNSET_VALUE;
+			if (v < 1 || v > length) {
+				continue;
+			}
+			solution[cell] = v;
+			int r = rowStart[cell * length + v - 1];
+			if (covered[column[r]] || covered[column[r + 1]] || covered[column[r + 2]]
+					|| covered[column[r + 3]]) {
+				conflict = true;
+				break;
+			}
+			selectRow(r);
+			givens[givenCount++] = r;
+		}
+
+		int count = 0;
+		int depth = 0;
+		if (!conflict) {
+			boolean forward = true;
+			while (true) {
+				if (forward) {
+					if (right[ROOT] == ROOT) {// 所有列都被覆盖，找到一个解
+						if (count == 0) {
+							for (int k = 0; k < depth; k++) {
+								int r = rowOf[choices[k]];
+								solution[r / length] = r % length + 1;
+							}
+						}
+						if (++count >= limit) {
+							break;
+						}
+						forward = false;
+						continue;
+					}
+					// 选择节点数最少的列
+					int c = right[ROOT], min = size[c];
+					for (int j = right[c]; j != ROOT && min > 1; j = right[j]) {
+						if (size[j] < min) {
+							c = j;
+							min = size[j];
+						}
+					}
+					if (min == 0) {
+						forward = false;
+						continue;
+					}
+					cover(c);
+					choices[depth] = down[c];
+				} else {
+					if (depth == 0) {
+						break;
+					}
+					// 撤销上一层的选择，尝试同列的下一行
+					depth--;
+					int r = choices[depth];
+					for (int j = left[r]; j != r; j = left[j]) {
+						uncover(column[j]);
+					}
+					choices[depth] = down[r];
+				}
+				int r = choices[depth];
+				int c = column[r];
+				if (r == c) {// 这一列已经试完了
+					uncover(c);
+					forward = false;
+					continue;
+				}
+				for (int j = right[r]; j != r; j = right[j]) {
+					cover(column[j]);
+				}
+				depth++;
+				forward = true;
+			}
+		}
+
+		// 恢复链表，以便下次求解重复使用
+		for (int k = depth - 1; k >= 0; k--) {
+			int r = choices[k];
+			for (int j = left[r]; j != r; j = left[j]) {
+				uncover(column[j]);
+			}
+			uncover(column[r]);
+		}
+		for (int k = givenCount - 1; k >= 0; k--) {
+			unselectRow(givens[k]);
+		}
+		return count;
+	}
+
+	private void selectRow(int r) {
+		cover(column[r]);
+		for (int j = right[r]; j != r; j = right[j]) {
+			cover(column[j]);
+		}
+	}
+
+	private void unselectRow(int r) {
+		for (int j = left[r]; j != r; j = left[j]) {
+			uncover(column[j]);
+		}
+		uncover(column[r]);
+	}
+
+	private void cover(int c) {
+		covered[c] = true;
+		right[left[c]] = right[c];
+		left[right[c]] = left[c];
+		for (int i = down[c]; i != c; i = down[i]) {
+			for (int j = right[i]; j != i; j = right[j]) {
+				up[down[j]] = up[j];
+				down[up[j]] = down[j];
+				size[column[j]]--;
+			}
+		}
+	}
+
+	private void uncover(int c) {
+		for (int i = up[c]; i != c; i = up[i]) {
+			for (int j = left[i]; j != i; j = left[j]) {
+				size[column[j]]++;
+				up[down[j]] = j;
+				down[up[j]] = j;
+			}
+		}
+		right[left[c]] = c;
+		left[right[c]] = c;
+		covered[c] = false;
+	}
+}
@@ -0,0 +1,195 @@
+package com.lew.scott.puzzle.sudoku.data;
+
+/**
+ * 按求解技巧评定谜题的难度。
+ *
+ * 只用给定的技巧求解：每一轮按权重从小到大尝试，某种技巧有所突破就回到最简单的技巧重新开始，
+ * 所有技巧都无法继续时用回溯搜索求出剩余的单元格，记为{@link Technique#SEARCH}。
+ * 整个过程只求解一遍，同时记录每种技巧使用的次数。
+ * 评级是用到的最难技巧的权重；分数是各技巧权重乘以使用次数之和，用于同一评级内比较。
+ * 对象可以重复使用，不是线程安全的。
+ */
+public class DifficultyGrader {
+
+	private final CandidateBoard board;
+	private final Strategy[] strategies; // 按权重从小到大
+	private final int[] usage = new int[Technique.COUNT];
+	private final int[] grid; // 搜索时使用
+	private BacktrackSolver searchSolver; // 第一次需要搜索时创建
+	private int hardest = -1;
+	private int score;
+	private boolean solved;
+
+	/**
+	 * 使用全部已实现的技巧
+	 */
+	public DifficultyGrader() {
+		this(new NakedSingleStrategy(), new HiddenSingleStrategy(), new PointingStrategy(), new ClaimingStrategy(),
+				new NakedSubsetStrategy(Technique.NAKED_PAIR, 2), new XWingStrategy(),
+				new HiddenSubsetStrategy(Technique.HIDDEN_PAIR, 2), new NakedSubsetStrategy(Technique.NAKED_TRIPLE, 3),
+				new HiddenSubsetStrategy(Technique.HIDDEN_TRIPLE, 3));
+	}
+
+	/**
+	 * 使用给定的技巧，顺序无关，会按权重排序
+	 *
+	 * @param strategies
+	 */
+	public DifficultyGrader(Strategy... strategies) {
+		this(SudokuMatrix.SQUARE_ROOT, strategies);
+	}
+
+	/**
+	 * 评定边长为root*root的谜题，使用给定的技巧
+	 *
+	 * @param root
+	 * @param strategies
+	 */
+	public DifficultyGrader(int root, Strategy... strategies) {
+		this.board = new CandidateBoard(root);
+		this.grid = new int[board.cellCount];
+		this.strategies = strategies.clone();
+		Strategy.sortByWeight(this.strategies);
+	}
+
+	public int grade(int[] values) {
+		return grade(values, null);
+	}
+
+	/**
+	 * 评定按行展开的谜题，0表示未填
+	 *
+	 * @param values
+	 * @param callBack
+	 *            不为null时报告每一步
+	 * @return 评级(用到的最难技巧的权重)，没有空白单元格时为0；谜题不合法或无解时返回-1
+	 */
+	public int grade(int[] values, TechniqueCallback callBack) {
+		for (int t = 0; t < usage.length; t++) {
+			usage[t] = 0;
+		}
+		hardest = -1;
+		score = 0;
+		solved = false;
+		board.setCallback(callBack);
+		try {
+			if (!board.load(values)) {
+				return -1;
+			}
+			int round = 0;
+			while (board.getEmptyCount() > 0 && !board.hasContradiction()) {
+				boolean hasAchievement = false;
+				for (int k = 0; k < strategies.length; k++) {
+					Strategy s = strategies[k];
+					if (s.apply(board)) {
+						use(s.getTechnique(), callBack);
+						hasAchievement = true;
+						break;
+					}
+				}
+				round++;
+				if (callBack != null) {
+					callBack.iterateCallback(round, board.getEmptyCount() == 0, hasAchievement);
+				}
+				if (!hasAchievement) {
+					if (!search()) {
+						return -1;
+					}
+					use(Technique.SEARCH, callBack);
+				}
+			}
+			if (board.hasContradiction()) {
+				return -1;
+			}
+			solved = true;
+			return getRating();
+		} finally {
+			board.setCallback(null);
+		}
+	}
+
+	/**
+	 * 技巧都无法继续时，用回溯搜索求出剩余的单元格
+	 */
+	private boolean search() {
+		if (searchSolver == null) {
+			searchSolver = new BacktrackSolver(board.root);
+		}
+		board.copyValues(grid);
+		if (!searchSolver.solve(grid)) {
+			return false;
+		}
+		for (int i = 0; i < grid.length; i++) {
+			if (board.getValue(i) == SudokuMatrix.UNSET_VALUE) {
+				board.assign(Technique.SEARCH, i, grid[i]);
+			}
+		}
+		return true;
+	}
+
+	private void use(int technique, TechniqueCallback callBack) {
+		usage[technique]++;
+		score += Technique.getWeight(technique);
+		if (hardest < 0 || Technique.getWeight(technique) > Technique.getWeight(hardest)) {
+			hardest = technique;
+		}
+		if (callBack != null) {
+			callBack.techniqueCallback(technique);
+		}
+	}
+
+	/**
+	 * 上次评定的评级，见{@link #grade(int[], TechniqueCallback)}
+	 *
+	 * @return
+	 */
+	public int getRating() {
+		return hardest < 0 ? 0 : Technique.getWeight(hardest);
+	}
+
+	/**
+	 * 上次评定用到的最难技巧，没有用到任何技巧时返回-1
+	 *
+	 * @return
+	 */
+	public int getHardestTechnique() {
+		return hardest;
+	}
+
+	/**
+	 * 上次评定中技巧technique被使用的次数
+	 *
+	 * @param technique
+	 * @return
+	 */
+	public int getUsage(int technique) {
+		return usage[technique];
+	}
+
+	/**
+	 * 上次评定的分数：各技巧的权重乘以使用次数之和
+	 *
+	 * @return
+	 */
+	public int getScore() {
+		return score;
+	}
+
+	/**
+	 * 上次评定是否求出了解
+	 *
+	 * @return
+	 */
+	public boolean isSolved() {
+		return solved;
+	}
+
+	/**
+	 * 上次评定求出的解，按行展开写入dst
+	 *
+	 * @param dst
+	 */
+	public void getSolution(int[] dst) {
+		board.copyValues(dst);
+	}
+}
@@ -0,0 +1,322 @@
+package com.lew.scott.puzzle.sudoku.data;
+
+/**
+ * 用掩码校验数独矩阵。
+ *
+ * 按行优先顺序对所有单元格只扫描一遍，同时维护每行、每列、每个root*root小矩阵的已用数字掩码，
+ * 遇到第一个错误立即返回。结果是一个int：{@link #VALID}表示合法，否则编码了错误原因、
+ * 出错的域(行、列或小矩阵)、域的序号、出错的单元格和数字，用reasonOf等方法解码。
+ * 校验器对象可以重复使用，校验过程中不分配内存；但不是线程安全的。
+ */
+public class GridValidator {
+
+	public static final int VALID = 0;
+
+	public static final int REASON_DUPLICATE = 1; // 同一域中数字重复
+	public static final int REASON_EMPTY = 2; // 要求完整时有未填的单元格
+	public static final int REASON_OUT_OF_RANGE = 3; // 数字超出范围
+	public static final int REASON_BAD_SIZE = 4; // 矩阵大小不对
+
+	public static final int UNIT_ROW = 0;
+	public static final int UNIT_COL = 1;
+	public static final int UNIT_BOX = 2;
+
+	// 编码: 原因[28,31) 域[26,28) 域序号[20,26) 单元格下标[8,20) 数字[0,8)
+	private static final int REASON_SHIFT = 28;
+	private static final int UNIT_SHIFT = 26;
+	private static final int INDEX_SHIFT = 20;
+	private static final int CELL_SHIFT = 8;
+
+	private final int length; // 数独矩阵边长
+	private final int root; // 数独矩阵边长平方根
+	private final int[] rowUsed; // 每行已用数字的掩码
+	private final int[] colUsed; // 每列已用数字的掩码
+	private final int[] boxUsed; // 每个小矩阵已用数字的掩码
+
+	public GridValidator() {
+		this(SudokuMatrix.SQUARE_ROOT);
+	}
+
+	/**
+	 * 边长为root*root的数独矩阵
+	 *
+	 * @param root
+	 *            小矩阵边长，[{@link SudokuMatrix#MIN_ROOT}, {@link SudokuMatrix#MAX_ROOT}]
+	 */
+	public GridValidator(int root) {
+		this.root = root;
+		length = root * root;
+		rowUsed = new int[length];
+		colUsed = new int[length];
+		boxUsed = new int[length];
+	}
+
+	/**
+	 * 校验按行展开的矩阵，0表示未填
+	 *
+	 * @param grid
+	 * @param requireFull
+	 *            为true时还要求所有单元格都已填
+	 * @return {@link #VALID}或编码后的错误
+	 */
+	public int validate(int[] grid, boolean requireFull) {
+		if (grid == null || grid.length != length * length) {
+			return encode(REASON_BAD_SIZE, UNIT_ROW, 0, 0, 0);
+		}
+		reset();
+		for (int i = 0; i < grid.length; i++) {
+			int code = visit(i / length, i % length, grid[i], requireFull);
+			if (code != VALID) {
+				return code;
+			}
+		}
+		return VALID;
+	}
+
+	/**
+	 * 校验二维矩阵，0表示未填
+	 *
+	 * @param matrix
+	 * @param requireFull
+	 *            为true时还要求所有单元格都已填
+	 * @return {@link #VALID}或编码后的错误
+	 */
+	public int validate(int[][] matrix, boolean requireFull) {
+		if (matrix == null || matrix.length != length) {
+			return encode(REASON_BAD_SIZE, UNIT_ROW, 0, 0, 0);
+		}
+		reset();
+		for (int i = 0; i < length; i++) {
+			if (matrix[i] == null || matrix[i].length != length) {
+				return encode(REASON_BAD_SIZE, UNIT_ROW, i, 0, 0);
+			}
+			for (int j = 0; j < length; j++) {
+				int code = visit(i, j, matrix[i][j], requireFull);
+				if (code != VALID) {
+					return code;
+				}
+			}
+		}
+		return VALID;
+	}
+
+	/**
+	 * 修正不完全矩阵：先清除超出范围的数字，再依次按行、按列、按小矩阵各扫描一遍，
+	 * 每个域中与前面的数字重复的被清除。后面的扫描在前面清除之后的矩阵上进行，结果与原来用数值集合的实现相同
+	 *
+	 * @param matrix
+	 * @return 清除的单元格数
+	 */
+	public int amend(int[][] matrix) {
+		int cleared = 0;
+		for (int i = 0; i < length; i++) {
+			for (int j = 0; j < length; j++) {
+				int v = matrix[i][j];
+				if (v != SudokuMatrix.UNSET_VALUE && (v < 1 || v > length)) {
+					matrix[i][j] = SudokuMatrix.UNSET_VALUE;
+					cleared++;
+				}
+			}
+		}
+		// 横向
+		for (int i = 0; i < length; i++) {
+			int used = 0;
+			for (int j = 0; j < length; j++) {
+				int v = matrix[i][j];
+				if (v == SudokuMatrix.UNSET_VALUE) {
+					continue;
+				}
+				int bit = 1 << v;
+				if ((used & bit) != 0) {
+					matrix[i][j] = SudokuMatrix.UNSET_VALUE;
+					cleared++;
+					continue;
+				}
+				used |= bit;
+			}
+		}
+		// 纵向
+		for (int j = 0; j < length; j++) {
+			int used = 0;
+			for (int i = 0; i < length; i++) {
+				int v = matrix[i][j];
+				if (v == SudokuMatrix.UNSET_VALUE) {
+					continue;
+				}
+				int bit = 1 << v;
+				if ((used & bit) != 0) {
+					matrix[i][j] = SudokuMatrix.UNSET_VALUE;
+					cleared++;
+					continue;
+				}
+				used |= bit;
+			}
+		}
+		// 小矩阵，按行优先编号的顺序，每个小矩阵内也按行优先
+		for (int top = 0; top < length; top += root) {
+			for (int left = 0; left < length; left += root) {
+				int used = 0;
+				for (int i = top; i < top + root; i++) {
+					for (int j = left; j < left + root; j++) {
+						int v = matrix[i][j];
+						if (v == SudokuMatrix.UNSET_VALUE) {
+							continue;
+						}
+						int bit = 1 << v;
+						if ((used & bit) != 0) {
+							matrix[i][j] = SudokuMatrix.UNSET_VALUE;
+							cleared++;
+							continue;
+						}
+						used |= bit;
+					}
+				}
+			}
+		}
+		return cleared;
+	}
+
+	/**
+	 * 错误原因，{@link #VALID}时返回0
+	 *
+	 * @param code
+	 * @return
+	 */
+	public static int reasonOf(int code) {
+		return code >>> REASON_SHIFT;
+	}
+
+	/**
+	 * 出错的域：{@link #UNIT_ROW}, {@link #UNIT_COL}或{@link #UNIT_BOX}
+	 *
+	 * @param code
+	 * @return
+	 */
+	public static int unitOf(int code) {
+		return (code >>> UNIT_SHIFT) & 0x3;
+	}
+
+	/**
+	 * 出错的域的序号，小矩阵按行优先编号
+	 *
+	 * @param code
+	 * @return
+	 */
+	public static int unitIndexOf(int code) {
+		return (code >>> INDEX_SHIFT) & 0x3F;
+	}
+
+	/**
+	 * 出错的单元格，按行展开的下标
+	 *
+	 * @param code
+	 * @return
+	 */
+	public static int cellOf(int code) {
+		return (code >>> CELL_SHIFT) & 0xFFF;
+	}
+
+	/**
+	 * 出错的数字，未填或超出范围时是单元格上的原值(超出范围的只保留低8位)
+	 *
+	 * @param code
+	 * @return
+	 */
+	public static int digitOf(int code) {
+		return code & 0xFF;
+	}
+
+	/**
+	 * 错误的文字描述
+	 *
+	 * @param code
+	 * @return
+	 */
+	public static String describe(int code) {
+		int unitIndex = unitIndexOf(code) + 1;
+		String unit;
+		switch (unitOf(code)) {
+		case UNIT_COL:
+			unit = "第" + unitIndex + "列";
+			break;
+		case UNIT_BOX:
+			unit = "第" + unitIndex + "个小矩阵";
+			break;
+		default:
+			unit = "第" + unitIndex + "行";
+			break;
+		}
+		switch (reasonOf(code)) {
+		case VALID:
+			return "合法";
+		case REASON_DUPLICATE:
+			return unit + "数字" + digitOf(code) + "重复";
+		case REASON_EMPTY:
+			return unit + "有未填的单元格";
+		case REASON_OUT_OF_RANGE:
+			return unit + "有超出范围的数字";
+		case REASON_BAD_SIZE:
+			return "矩阵大小错误";
+		default:
+			return "未知错误";
+		}
+	}
+
+	private void reset() {
+		for (int k = 0; k < length; k++) {
+			rowUsed[k] = 0;
+			colUsed[k] = 0;
+			boxUsed[k] = 0;
+		}
+	}
+
+	/**
+	 * 检查并记录单元格(x,y)的值v
+	 */
+	private int visit(int x, int y, int v, boolean requireFull) {
+		if (v == SudokuMatrix.UNSET_VALUE) {
+			return requireFull ? encode(REASON_EMPTY, UNIT_ROW, x, x * length + y, v) : VALID;
+		}
+		if (v < 1 || v > length) {
+			return encode(REASON_OUT_OF_RANGE, UNIT_ROW, x, x * length + y, v & 0xFF);
+		}
+		int bit = 1 << v;
+		int unit = conflictUnit(x, y, bit);
+		if (unit >= 0) {
+			int index = unit == UNIT_ROW ? x : unit == UNIT_COL ? y : boxIndex(x, y);
+			return encode(REASON_DUPLICATE, unit, index, x * length + y, v);
+		}
+		mark(x, y, bit);
+		return VALID;
+	}
+
+	/**
+	 * @return 数字已在其中出现的域，没有时返回-1
+	 */
+	private int conflictUnit(int x, int y, int bit) {
+		if ((rowUsed[x] & bit) != 0) {
+			return UNIT_ROW;
+		}
+		if ((colUsed[y] & bit) != 0) {
+			return UNIT_COL;
+		}
+		if ((boxUsed[boxIndex(x, y)] & bit) != 0) {
+			return UNIT_BOX;
+		}
+		return -1;
+	}
+
+	private void mark(int x, int y, int bit) {
+		rowUsed[x] |= bit;
+		colUsed[y] |= bit;
+		boxUsed[boxIndex(x, y)] |= bit;
+	}
+
+	private int boxIndex(int x, int y) {
+		return x / root * root + y / root;
+	}
+
+	private static int encode(int reason, int unit, int index, int cell, int digit) {
+		return reason << REASON_SHIFT | unit << UNIT_SHIFT | index << INDEX_SHIFT | cell << CELL_SHIFT | digit;
+	}
+}
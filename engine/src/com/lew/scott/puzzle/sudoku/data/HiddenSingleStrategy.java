@@ -0,0 +1,38 @@
+package com.lew.scott.puzzle.sudoku.data;
+
+/**
+ * 隐藏唯一值：某个数字在一个域中只出现在一个单元格的可选值里，就是该单元格的值。
+ * 每个域扫描一遍，用两个掩码分别记录出现过一次和多次的数字
+ */
+public class HiddenSingleStrategy extends Strategy {
+
+	public HiddenSingleStrategy() {
+		super(Technique.HIDDEN_SINGLE);
+	}
+
+	@Override
+	public boolean apply(CandidateBoard board) {
+		boolean achieved = false;
+		for (int u = 0; u < board.units.length && !board.hasContradiction(); u++) {
+			int[] unit = board.units[u];
+			int once = 0, more = 0;
+			for (int k = 0; k < unit.length; k++) {
+				int m = board.candidates[unit[k]];
+				more |= once & m;
+				once |= m;
+			}
+			int single = once & ~more;
+			for (int k = 0; k < unit.length && single != 0; k++) {
+				int cell = unit[k];
+				int m = board.candidates[cell] & single;
+				if (m != 0) {
+					int v = Integer.numberOfTrailingZeros(m);
+					board.assign(getTechnique(), cell, v);
+					single &= ~(1 << v);
+					achieved = true;
+				}
+			}
+		}
+		return achieved;
+	}
+}
@@ -0,0 +1,83 @@
+package com.lew.scott.puzzle.sudoku.data;
+
+/**
+ * 隐藏数对(数组)：同一域中size个数字的可选位置合起来只有size个单元格，
+ * 这几个单元格只能填这些数字，删除它们的其他可选值
+ */
+public class HiddenSubsetStrategy extends Strategy {
+
+	private final int size;
+	private final int[] places; // 当前域中每个数字可选位置的掩码(按域内序号)
+	private final int[] digits; // 当前域中可选位置个数在[2, size]之间的数字
+	private int digitCount;
+
+	/**
+	 * @param technique
+	 *            {@link Technique#HIDDEN_PAIR}或{@link Technique#HIDDEN_TRIPLE}
+	 * @param size
+	 *            数字个数
+	 */
+	public HiddenSubsetStrategy(int technique, int size) {
+		super(technique);
+		this.size = size;
+		this.places = new int[SudokuMatrix.MAX_LENGTH + 1];
+		this.digits = new int[SudokuMatrix.MAX_LENGTH];
+	}
+
+	@Override
+	public boolean apply(CandidateBoard board) {
+		int length = board.length;
+		for (int u = 0; u < board.units.length; u++) {
+			int[] unit = board.units[u];
+			for (int v = 1; v <= length; v++) {
+				places[v] = 0;
+			}
+			int empty = 0;
+			for (int k = 0; k < unit.length; k++) {
+				int m = board.candidates[unit[k]];
+				if (m != 0) {
+					empty++;
+				}
+				for (; m != 0; m &= m - 1) {
+					places[Integer.numberOfTrailingZeros(m)] |= 1 << k;
+				}
+			}
+			digitCount = 0;
+			for (int v = 1; v <= length; v++) {
+				int n = Integer.bitCount(places[v]);
+				if (n >= 2 && n <= size) {
+					digits[digitCount++] = v;
+				}
+			}
+			// 空白单元格不多于size个时，删除不了任何可选值
+			if (empty > size && digitCount >= size && search(board, unit, 0, 0, 0, 0)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * 从digits[start, digitCount)中再选size-depth个数字，union是已选数字的可选位置，chosen是已选数字的掩码
+	 */
+	private boolean search(CandidateBoard board, int[] unit, int start, int depth, int union, int chosen) {
+		if (depth == size) {
+			boolean achieved = false;
+			for (int m = union; m != 0; m &= m - 1) {
+				achieved |= board.eliminate(getTechnique(), unit[Integer.numberOfTrailingZeros(m)], ~chosen);
+			}
+			return achieved;
+		}
+		for (int k = start; k <= digitCount - (size - depth); k++) {
+			int v = digits[k];
+			int u = union | places[v];
+			if (Integer.bitCount(u) > size) {
+				continue;
+			}
+			if (search(board, unit, k + 1, depth + 1, u, chosen | 1 << v)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
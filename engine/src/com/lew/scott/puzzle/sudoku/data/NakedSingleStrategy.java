@@ -0,0 +1,24 @@
+package com.lew.scott.puzzle.sudoku.data;
+
+/**
+ * 唯一可选值：单元格只剩一个可选值，就是它的值。一次求出所有这样的单元格
+ */
+public class NakedSingleStrategy extends Strategy {
+
+	public NakedSingleStrategy() {
+		super(Technique.NAKED_SINGLE);
+	}
+
+	@Override
+	public boolean apply(CandidateBoard board) {
+		boolean achieved = false;
+		for (int i = 0; i < board.cellCount && !board.hasContradiction(); i++) {
+			int m = board.candidates[i];
+			if (m != 0 && (m & (m - 1)) == 0) {
+				board.assign(getTechnique(), i, Integer.numberOfTrailingZeros(m));
+				achieved = true;
+			}
+		}
+		return achieved;
+	}
+}
@@ -0,0 +1,89 @@
+package com.lew.scott.puzzle.sudoku.data;
+
+/**
+ * 数对(数组)：同一域中size个单元格的可选值合起来只有size个数字，
+ * 这些数字只能填在这几个单元格中，从域中其他单元格删除
+ */
+public class NakedSubsetStrategy extends Strategy {
+
+	private final int size;
+	private final int[] cells; // 当前域中可选值个数在[2, size]之间的单元格
+	private final int[] chosen;
+	private int cellCount;
+
+	/**
+	 * @param technique
+	 *            {@link Technique#NAKED_PAIR}或{@link Technique#NAKED_TRIPLE}
+	 * @param size
+	 *            单元格个数
+	 */
+	public NakedSubsetStrategy(int technique, int size) {
+		super(technique);
+		this.size = size;
+		this.cells = new int[SudokuMatrix.MAX_LENGTH];
+		this.chosen = new int[size];
+	}
+
+	@Override
+	public boolean apply(CandidateBoard board) {
+		for (int u = 0; u < board.units.length; u++) {
+			int[] unit = board.units[u];
+			cellCount = 0;
+			int empty = 0;
+			for (int k = 0; k < unit.length; k++) {
+				int n = Integer.bitCount(board.candidates[unit[k]]);
+				if (n > 0) {
+					empty++;
+				}
+				if (n >= 2 && n <= size) {
+					cells[cellCount++] = unit[k];
+				}
+			}
+			// 空白单元格不多于size个时，删除不了任何可选值
+			if (empty > size && cellCount >= size && search(board, unit, 0, 0, 0)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * 从cells[start, cellCount)中再选size-depth个单元格，union是已选单元格的可选值
+	 */
+	private boolean search(CandidateBoard board, int[] unit, int start, int depth, int union) {
+		if (depth == size) {
+			return eliminate(board, unit, union);
+		}
+		for (int k = start; k <= cellCount - (size - depth); k++) {
+			int u = union | board.candidates[cells[k]];
+			if (Integer.bitCount(u) > size) {
+				continue;
+			}
+			chosen[depth] = cells[k];
+			if (search(board, unit, k + 1, depth + 1, u)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean eliminate(CandidateBoard board, int[] unit, int union) {
+		boolean achieved = false;
+		for (int k = 0; k < unit.length; k++) {
+			int cell = unit[k];
+			if (!isChosen(cell)) {
+				achieved |= board.eliminate(getTechnique(), cell, union);
+			}
+		}
+		return achieved;
+	}
+
+	private boolean isChosen(int cell) {
+		for (int d = 0; d < size; d++) {
+			if (chosen[d] == cell) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
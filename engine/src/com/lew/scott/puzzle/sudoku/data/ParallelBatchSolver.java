@@ -0,0 +1,149 @@
+package com.lew.scott.puzzle.sudoku.data;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 多线程批量求解。
+ *
+ * SudokuMatrix不是线程安全的，这里在ForkJoinPool的每个工作线程上各保留一个SudokuMatrix，
+ * 用{@link SudokuMatrix#solveGrid(int[])}反复求解，线程之间不共享任何可变状态。
+ * 谜题按下标分段递归拆分，结果写回原数组，所以输出顺序与输入一致。
+ * 同一个ParallelBatchSolver对象可以被多个线程同时使用。
+ */
+public class ParallelBatchSolver {
+
+	private static final int THRESHOLD = 64; // 每段最少的谜题数，再小就不拆分了
+	private static final int DEFAULT_CHUNK_SIZE = 8192;
+
+	private final ForkJoinPool pool;
+	private final int engine;
+	private final ThreadLocal<SudokuMatrix> solvers = new ThreadLocal<SudokuMatrix>() {
+		@Override
+		protected SudokuMatrix initialValue() {
+			SudokuMatrix m = new SudokuMatrix();
+			m.setSolverEngine(engine);
+			return m;
+		}
+	};
+
+	/**
+	 * 使用公共的ForkJoinPool
+	 *
+	 * @param engine
+	 *            {@link SudokuMatrix#ENGINE_PROPAGATION}或{@link SudokuMatrix#ENGINE_DANCING_LINKS}
+	 */
+	public ParallelBatchSolver(int engine) {
+		this(ForkJoinPool.commonPool(), engine);
+	}
+
+	public ParallelBatchSolver(ForkJoinPool pool, int engine) {
+		this.pool = pool;
+		this.engine = engine;
+	}
+
+	/**
+	 * 并行求解grids的前count个谜题(按行展开的矩阵)，结果写回原数组
+	 *
+	 * @param grids
+	 * @param count
+	 * @param solved
+	 *            不为null时记录每个谜题是否有解
+	 * @return 有解的谜题个数
+	 */
+	public int solveAll(int[][] grids, int count, boolean[] solved) {
+		if (count <= 0) {
+			return 0;
+		}
+		SolveTask task = new SolveTask(grids, solved, 0, count);
+		pool.invoke(task);
+		return task.solvedCount;
+	}
+
+	/**
+	 * 按输入顺序逐个返回求解后的谜题。每次从输入中取一批并行求解，返回的是输入的数组本身，
+	 * 无解的谜题保持原样(仍有0)
+	 *
+	 * @param puzzles
+	 * @return
+	 */
+	public Iterator<int[]> solveAll(Iterator<int[]> puzzles) {
+		return solveAll(puzzles, DEFAULT_CHUNK_SIZE);
+	}
+
+	public Iterator<int[]> solveAll(final Iterator<int[]> puzzles, final int chunkSize) {
+		return new Iterator<int[]>() {
+			private final int[][] chunk = new int[chunkSize][];
+			private int size;
+			private int pos;
+
+			public boolean hasNext() {
+				if (pos < size) {
+					return true;
+				}
+				// 取下一批并行求解
+				size = 0;
+				pos = 0;
+				while (size < chunkSize && puzzles.hasNext()) {
+					chunk[size++] = puzzles.next();
+				}
+				solveAll(chunk, size, null);
+				return size > 0;
+			}
+
+			public int[] next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				int[] grid = chunk[pos];
+				chunk[pos++] = null;
+				return grid;
+			}
+
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	private class SolveTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final int[][] grids;
+		private final boolean[] solved;
+		private final int from;
+		private final int to;
+		int solvedCount;
+
+		SolveTask(int[][] grids, boolean[] solved, int from, int to) {
+			this.grids = grids;
+			this.solved = solved;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= THRESHOLD) {
+				SudokuMatrix m = solvers.get();
+				for (int i = from; i < to; i++) {
+					boolean ok = m.solveGrid(grids[i]);
+					if (solved != null) {
+						solved[i] = ok;
+					}
+					if (ok) {
+						solvedCount++;
+					}
+				}
+				return;
+			}
+			int mid = (from + to) >>> 1;
+			SolveTask left = new SolveTask(grids, solved, from, mid);
+			SolveTask right = new SolveTask(grids, solved, mid, to);
+			invokeAll(left, right);
+			solvedCount = left.solvedCount + right.solvedCount;
+		}
+	}
+}
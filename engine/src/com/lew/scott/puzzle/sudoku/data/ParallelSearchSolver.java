@@ -0,0 +1,177 @@
+package com.lew.scott.puzzle.sudoku.data;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 单个谜题的并行搜索。
+ *
+ * 在前splitDepth个分支点(可选值最少的单元格，只有一个可选值的不算分支)按每个可选值拆分出子任务，
+ * 子树交给ForkJoinPool的工作线程各自用回溯求解器搜索；任何一个子任务找到解后设置取消标志，
+ * 其余子任务随即放弃。有多个解时返回哪一个不确定。
+ * 每个工作线程保留自己的BacktrackSolver；本对象一次只能用于一个谜题，但ForkJoinPool可以共享。
+ */
+public class ParallelSearchSolver {
+
+	public static final int DEFAULT_SPLIT_DEPTH = 3;
+
+	private final ForkJoinPool pool;
+	private final int splitDepth;
+	private final int length; // 数独矩阵边长
+	private final int root; // 数独矩阵边长平方根
+	private final int allMask;
+	private final ThreadLocal<BacktrackSolver> solvers = new ThreadLocal<BacktrackSolver>() {
+		@Override
+		protected BacktrackSolver initialValue() {
+			return new BacktrackSolver(root);
+		}
+	};
+
+	private AtomicBoolean found; // 本次求解的取消标志，找到解时设为true
+	private volatile int[] solution;
+
+	public ParallelSearchSolver(ForkJoinPool pool) {
+		this(pool, DEFAULT_SPLIT_DEPTH);
+	}
+
+	public ParallelSearchSolver(ForkJoinPool pool, int splitDepth) {
+		this(pool, splitDepth, SudokuMatrix.SQUARE_ROOT);
+	}
+
+	/**
+	 * @param pool
+	 * @param splitDepth
+	 *            前splitDepth层分支拆分成并行任务
+	 * @param root
+	 *            小矩阵边长
+	 */
+	public ParallelSearchSolver(ForkJoinPool pool, int splitDepth, int root) {
+		this.pool = pool;
+		this.splitDepth = splitDepth;
+		this.root = root;
+		this.length = root * root;
+		this.allMask = Candidates.all(length);
+	}
+
+	/**
+	 * 求解按行展开的矩阵，0表示待求解。成功时把结果写回values，失败时values不变
+	 *
+	 * @param values
+	 * @return 是否有解
+	 */
+	public boolean solve(int[] values) {
+		found = new AtomicBoolean(false);
+		solution = null;
+		pool.invoke(new BranchTask(values.clone(), 0));
+		int[] s = solution;
+		found = null;
+		solution = null;
+		if (s == null) {
+			return false;
+		}
+		System.arraycopy(s, 0, values, 0, s.length);
+		return true;
+	}
+
+	/**
+	 * 找出可选值最少的空白单元格
+	 *
+	 * @param grid
+	 * @param maskOut
+	 *            maskOut[0]返回该单元格的可选值
+	 * @return 单元格下标；矩阵已填满返回-1；已有数字互相冲突返回-2
+	 */
+	private int selectBranchCell(int[] grid, int[] maskOut) {
+		int[] rowUsed = new int[length], colUsed = new int[length], boxUsed = new int[length];
+		for (int i = 0; i < grid.length; i++) {
+			int v = grid[i];
+			if (v == SudokuMatrix.UNSET_VALUE) {
+				continue;
+			}
+			int x = i / length, y = i % length, b = x / root * root + y / root;
+			int bit = 1 << v;
+			if (((rowUsed[x] | colUsed[y] | boxUsed[b]) & bit) != 0) {
+				return -2;
+			}
+			rowUsed[x] |= bit;
+			colUsed[y] |= bit;
+			boxUsed[b] |= bit;
+		}
+		int best = -1, bestCount = Integer.MAX_VALUE;
+		for (int i = 0; i < grid.length; i++) {
+			if (grid[i] != SudokuMatrix.UNSET_VALUE) {
+				continue;
+			}
+			int x = i / length, y = i % length, b = x / root * root + y / root;
+			int mask = allMask & ~(rowUsed[x] | colUsed[y] | boxUsed[b]);
+			int n = Integer.bitCount(mask);
+			if (n < bestCount) {
+				best = i;
+				bestCount = n;
+				maskOut[0] = mask;
+				if (n == 0) {
+					break;
+				}
+			}
+		}
+		return best;
+	}
+
+	private class BranchTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final int[] grid;
+		private final int depth;
+
+		BranchTask(int[] grid, int depth) {
+			this.grid = grid;
+			this.depth = depth;
+		}
+
+		@Override
+		protected void compute() {
+			AtomicBoolean cancel = found;
+			if (cancel == null || cancel.get()) {
+				return;
+			}
+			if (depth >= splitDepth) {
+				solveLeaf(cancel);
+				return;
+			}
+			int[] mask = new int[1];
+			int cell;
+			// 只有一个可选值的单元格直接填上，不算分支点
+			while ((cell = selectBranchCell(grid, mask)) >= 0 && Integer.bitCount(mask[0]) == 1) {
+				grid[cell] = Integer.numberOfTrailingZeros(mask[0]);
+			}
+			if (cell == -2 || (cell >= 0 && mask[0] == 0)) {// 矛盾，此分支无解
+				return;
+			}
+			if (cell == -1) {// 已经填满
+				solveLeaf(cancel);
+				return;
+			}
+			BranchTask[] children = new BranchTask[Integer.bitCount(mask[0])];
+			int k = 0;
+			for (int m = mask[0]; m != 0; m &= m - 1) {
+				int[] child = grid.clone();
+				child[cell] = Integer.numberOfTrailingZeros(m);
+				children[k++] = new BranchTask(child, depth + 1);
+			}
+			invokeAll(children);
+		}
+
+		private void solveLeaf(AtomicBoolean cancel) {
+			BacktrackSolver s = solvers.get();
+			s.setCancelFlag(cancel);
+			try {
+				if (s.solve(grid) && cancel.compareAndSet(false, true)) {
+					solution = grid;
+				}
+			} finally {
+				s.setCancelFlag(null);
+			}
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package com.lew.scott.puzzle.sudoku.data;
+
+/**
+ * 区块摒除：root*root小矩阵中某个数字的可选位置都在同一行(列)，
+ * 这一行(列)在小矩阵外的单元格不能再填这个数字
+ */
+public class PointingStrategy extends Strategy {
+
+	public PointingStrategy() {
+		super(Technique.POINTING);
+	}
+
+	@Override
+	public boolean apply(CandidateBoard board) {
+		int length = board.length;
+		for (int b = 0; b < length; b++) {
+			int[] box = board.units[length * 2 + b];
+			for (int v = 1; v <= length; v++) {
+				int bit = 1 << v;
+				int rows = 0, cols = 0;
+				for (int k = 0; k < box.length; k++) {
+					int cell = box[k];
+					if ((board.candidates[cell] & bit) != 0) {
+						rows |= 1 << board.rowOf[cell];
+						cols |= 1 << board.colOf[cell];
+					}
+				}
+				if (rows == 0) {
+					continue;
+				}
+				boolean achieved = false;
+				if ((rows & (rows - 1)) == 0) {
+					achieved = eliminateOutside(board, board.units[Integer.numberOfTrailingZeros(rows)], b, bit);
+				}
+				if ((cols & (cols - 1)) == 0) {
+					achieved |= eliminateOutside(board, board.units[length + Integer.numberOfTrailingZeros(cols)], b,
+							bit);
+				}
+				if (achieved) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private boolean eliminateOutside(CandidateBoard board, int[] line, int box, int bit) {
+		boolean achieved = false;
+		for (int k = 0; k < line.length; k++) {
+			int cell = line[k];
+			if (board.boxOf[cell] != box) {
+				achieved |= board.eliminate(getTechnique(), cell, bit);
+			}
+		}
+		return achieved;
+	}
+}
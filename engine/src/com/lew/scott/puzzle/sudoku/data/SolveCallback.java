@@ -5,5 +5,9 @@ public interface SolveCallback {
 	
 	public void solveCellCallback(int x, int y, int value);
 	
+	/**
+	 * 单元格(x,y)求解为value之后，相关单元格的可选值中删除了value；
+	 * 技巧从还没有求解的单元格(x,y)的可选值中删除value时也回调，每个数字一次
+	 */
 	public void reduceCellCallback(int x, int y, int value);
 }
@@ -0,0 +1,282 @@
+package com.lew.scott.puzzle.sudoku.data;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * 记录求解过程的回调：把收到的每个事件按顺序追加到一个int数组，求解时不做别的事，不分配对象(数组满时加倍)。
+ * 求解结束后用{@link SolveTraceReplayer}按任意速度回放，或者按下标逐个读取事件做分析。
+ *
+ * <pre>
+ * 每个事件3个int:
+ *   头部   位[0,3)类型，[3,8)行，[8,13)列，[13,18)数字，[18,22)技巧(15表示还不知道)，
+ *          EVENT_ITERATE的位[3,5)是isAllSolved和hasAchievement
+ *   参数   EVENT_ELIMINATE是删除的可选值掩码，EVENT_ITERATE是itrTimes，其他为0
+ *   轮次   事件发生在第几轮(之前收到的EVENT_ITERATE个数)
+ * </pre>
+ *
+ * 单元格被求解时技巧回调在solveCellCallback和reduceCellCallback之后才到，
+ * 收到{@link #techniqueCallback(int)}时把它补到之前还没有技巧的求解事件上。
+ * 不是线程安全的，一个SolveTrace同一时间只记录一次求解。
+ */
+public class SolveTrace implements TechniqueCallback {
+
+	public static final int EVENT_SOLVE = 1; // solveCellCallback
+	public static final int EVENT_REDUCE = 2; // reduceCellCallback
+	public static final int EVENT_ELIMINATE = 3; // eliminateCallback
+	public static final int EVENT_TECHNIQUE = 4; // techniqueCallback
+	public static final int EVENT_ITERATE = 5; // iterateCallback
+
+	static final int INTS_PER_EVENT = 3;
+	private static final int UNKNOWN_TECHNIQUE = 0xF;
+	private static final int FLAG_ALL_SOLVED = 1 << 3;
+	private static final int FLAG_ACHIEVEMENT = 1 << 4;
+
+	private int[] events;
+	private int size; // 事件数
+	private int iteration;
+	private int pending; // 从这个事件开始的求解事件还没有技巧
+
+	public SolveTrace() {
+		this(256);
+	}
+
+	/**
+	 * @param capacity
+	 *            预计的事件数
+	 */
+	public SolveTrace(int capacity) {
+		events = new int[Math.max(capacity, 16) * INTS_PER_EVENT];
+	}
+
+	/**
+	 * 清空，准备记录下一次求解，保留已分配的数组
+	 */
+	public void clear() {
+		size = 0;
+		iteration = 0;
+		pending = 0;
+	}
+
+	public void iterateCallback(int itrTimes, boolean isAllSolved, boolean hasAchievement) {
+		int flags = (isAllSolved ? FLAG_ALL_SOLVED : 0) | (hasAchievement ? FLAG_ACHIEVEMENT : 0);
+		append(EVENT_ITERATE | flags, itrTimes);
+		iteration++;
+	}
+
+	public void solveCellCallback(int x, int y, int value) {
+		append(cellHead(EVENT_SOLVE, x, y, value, UNKNOWN_TECHNIQUE), 0);
+	}
+
+	public void reduceCellCallback(int x, int y, int value) {
+		append(cellHead(EVENT_REDUCE, x, y, value, UNKNOWN_TECHNIQUE), 0);
+	}
+
+	public void techniqueCallback(int technique) {
+		int[] e = events;
+		for (int i = pending; i < size; i++) {
+			int p = i * INTS_PER_EVENT;
+			int type = e[p] & 7;
+			if ((type == EVENT_SOLVE || type == EVENT_REDUCE) && (e[p] >>> 18 & 0xF) == UNKNOWN_TECHNIQUE) {
+				e[p] = e[p] & ~(0xF << 18) | technique << 18;
+			}
+		}
+		append(EVENT_TECHNIQUE | technique << 18, 0);
+		pending = size;
+	}
+
+	public void eliminateCallback(int technique, int x, int y, int candidates) {
+		append(cellHead(EVENT_ELIMINATE, x, y, 0, technique), candidates);
+	}
+
+	private static int cellHead(int type, int x, int y, int value, int technique) {
+		return type | x << 3 | y << 8 | value << 13 | technique << 18;
+	}
+
+	private void append(int head, int arg) {
+		int p = size * INTS_PER_EVENT;
+		if (p + INTS_PER_EVENT > events.length) {
+			int[] grown = new int[events.length * 2];
+			System.arraycopy(events, 0, grown, 0, p);
+			events = grown;
+		}
+		events[p] = head;
+		events[p + 1] = arg;
+		events[p + 2] = iteration;
+		size++;
+	}
+
+	/**
+	 * 记录的事件数
+	 *
+	 * @return
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * 第i个事件的类型，EVENT_*
+	 *
+	 * @param i
+	 * @return
+	 */
+	public int getType(int i) {
+		return events[i * INTS_PER_EVENT] & 7;
+	}
+
+	public int getX(int i) {
+		return events[i * INTS_PER_EVENT] >>> 3 & 0x1F;
+	}
+
+	public int getY(int i) {
+		return events[i * INTS_PER_EVENT] >>> 8 & 0x1F;
+	}
+
+	/**
+	 * EVENT_SOLVE和EVENT_REDUCE求出的数字
+	 *
+	 * @param i
+	 * @return
+	 */
+	public int getValue(int i) {
+		return events[i * INTS_PER_EVENT] >>> 13 & 0x1F;
+	}
+
+	/**
+	 * 事件对应的技巧，见{@link Technique}；没有报告过技巧的求解事件(例如回调不是TechniqueCallback时)返回-1
+	 *
+	 * @param i
+	 * @return
+	 */
+	public int getTechnique(int i) {
+		int t = events[i * INTS_PER_EVENT] >>> 18 & 0xF;
+		return t == UNKNOWN_TECHNIQUE ? -1 : t;
+	}
+
+	/**
+	 * EVENT_ELIMINATE删除的可选值掩码，EVENT_ITERATE的itrTimes
+	 *
+	 * @param i
+	 * @return
+	 */
+	public int getArgument(int i) {
+		return events[i * INTS_PER_EVENT + 1];
+	}
+
+	/**
+	 * 事件发生在第几轮，从0开始
+	 *
+	 * @param i
+	 * @return
+	 */
+	public int getIteration(int i) {
+		return events[i * INTS_PER_EVENT + 2];
+	}
+
+	public boolean isAllSolved(int i) {
+		return (events[i * INTS_PER_EVENT] & FLAG_ALL_SOLVED) != 0;
+	}
+
+	public boolean hasAchievement(int i) {
+		return (events[i * INTS_PER_EVENT] & FLAG_ACHIEVEMENT) != 0;
+	}
+
+	/**
+	 * 记录的轮数(EVENT_ITERATE的个数)
+	 *
+	 * @return
+	 */
+	public int getIterationCount() {
+		return iteration;
+	}
+
+	/**
+	 * 把第i个事件交给callBack；技巧相关的事件只在callBack是{@link TechniqueCallback}时交出
+	 *
+	 * @param i
+	 * @param callBack
+	 */
+	public void deliver(int i, SolveCallback callBack) {
+		switch (getType(i)) {
+		case EVENT_SOLVE:
+			callBack.solveCellCallback(getX(i), getY(i), getValue(i));
+			break;
+		case EVENT_REDUCE:
+			callBack.reduceCellCallback(getX(i), getY(i), getValue(i));
+			break;
+		case EVENT_ITERATE:
+			callBack.iterateCallback(getArgument(i), isAllSolved(i), hasAchievement(i));
+			break;
+		case EVENT_TECHNIQUE:
+			if (callBack instanceof TechniqueCallback) {
+				((TechniqueCallback) callBack).techniqueCallback(getTechnique(i));
+			}
+			break;
+		case EVENT_ELIMINATE:
+			if (callBack instanceof TechniqueCallback) {
+				((TechniqueCallback) callBack).eliminateCallback(getTechnique(i), getX(i), getY(i), getArgument(i));
+			}
+			break;
+		}
+	}
+
+	/**
+	 * 按顺序把全部事件交给callBack
+	 *
+	 * @param callBack
+	 */
+	public void replay(SolveCallback callBack) {
+		for (int i = 0; i < size; i++) {
+			deliver(i, callBack);
+		}
+	}
+
+	/**
+	 * 写出全部事件，每个事件12字节
+	 *
+	 * @param out
+	 * @throws IOException
+	 */
+	public void write(DataOutput out) throws IOException {
+		out.writeInt(size);
+		out.writeInt(iteration);
+		int n = size * INTS_PER_EVENT;
+		for (int p = 0; p < n; p++) {
+			out.writeInt(events[p]);
+		}
+	}
+
+	/**
+	 * 读入{@link #write(DataOutput)}写出的事件，替换当前的内容。读入失败时记录为空
+	 *
+	 * @param in
+	 * @throws IOException
+	 *             读入出错，或事件数、事件类型不合法
+	 */
+	public void read(DataInput in) throws IOException {
+		clear();
+		int n = in.readInt();
+		int iterations = in.readInt();
+		if (n < 0 || n > Integer.MAX_VALUE / INTS_PER_EVENT || iterations < 0) {
+			throw new IOException("求解记录已损坏");
+		}
+		if (n * INTS_PER_EVENT > events.length) {
+			events = new int[n * INTS_PER_EVENT];
+		}
+		for (int p = 0; p < n * INTS_PER_EVENT; p += INTS_PER_EVENT) {
+			int head = in.readInt();
+			int type = head & 7;
+			if (type < EVENT_SOLVE || type > EVENT_ITERATE) {
+				throw new IOException("求解记录已损坏：第" + p / INTS_PER_EVENT + "个事件的类型为" + type);
+			}
+			events[p] = head;
+			events[p + 1] = in.readInt();
+			events[p + 2] = in.readInt();
+		}
+		size = n;
+		iteration = iterations;
+		pending = n;
+	}
+}
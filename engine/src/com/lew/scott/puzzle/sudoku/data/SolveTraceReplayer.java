@@ -0,0 +1,110 @@
+package com.lew.scott.puzzle.sudoku.data;
+
+/**
+ * 按步回放{@link SolveTrace}。回放的节奏由调用者决定(例如每帧前进若干个单元格)，与求解用了多少时间无关；
+ * 同一个记录可以被多个回放对象同时读取，回放时不修改记录。
+ */
+public class SolveTraceReplayer {
+
+	private final SolveTrace trace;
+	private int position; // 下一个要交出的事件
+
+	public SolveTraceReplayer(SolveTrace trace) {
+		this.trace = trace;
+	}
+
+	public SolveTrace getTrace() {
+		return trace;
+	}
+
+	/**
+	 * 是否还有没交出的事件
+	 *
+	 * @return
+	 */
+	public boolean hasNext() {
+		return position < trace.size();
+	}
+
+	/**
+	 * 下一个要交出的事件的下标
+	 *
+	 * @return
+	 */
+	public int getPosition() {
+		return position;
+	}
+
+	/**
+	 * 回到开头
+	 */
+	public void reset() {
+		position = 0;
+	}
+
+	/**
+	 * 交出一个事件
+	 *
+	 * @param callBack
+	 * @return 交出的事件类型，没有事件时返回0
+	 */
+	public int step(SolveCallback callBack) {
+		if (position >= trace.size()) {
+			return 0;
+		}
+		int type = trace.getType(position);
+		trace.deliver(position++, callBack);
+		return type;
+	}
+
+	/**
+	 * 交出事件，直到交出了cells个单元格的求解(及其后紧接着的归约和技巧事件)或者没有事件为止
+	 *
+	 * @param callBack
+	 * @param cells
+	 * @return 交出的求解事件个数
+	 */
+	public int advanceCells(SolveCallback callBack, int cells) {
+		int solved = 0;
+		while (position < trace.size()) {
+			int type = trace.getType(position);
+			if (type == SolveTrace.EVENT_SOLVE) {
+				if (solved == cells) {
+					break;
+				}
+				solved++;
+			}
+			trace.deliver(position++, callBack);
+		}
+		return solved;
+	}
+
+	/**
+	 * 交出事件直到本轮结束(包括本轮的EVENT_ITERATE)
+	 *
+	 * @param callBack
+	 * @return 交出的事件数
+	 */
+	public int advanceIteration(SolveCallback callBack) {
+		int start = position;
+		while (position < trace.size()) {
+			int type = trace.getType(position);
+			trace.deliver(position++, callBack);
+			if (type == SolveTrace.EVENT_ITERATE) {
+				break;
+			}
+		}
+		return position - start;
+	}
+
+	/**
+	 * 交出剩余的全部事件
+	 *
+	 * @param callBack
+	 */
+	public void finish(SolveCallback callBack) {
+		while (position < trace.size()) {
+			trace.deliver(position++, callBack);
+		}
+	}
+}
@@ -0,0 +1,50 @@
+package com.lew.scott.puzzle.sudoku.data;
+
+/**
+ * 一种求解技巧的实现，在{@link CandidateBoard}上求出单元格或删除可选值。
+ * 实现类可以保留临时数组以免每次分配内存，所以不是线程安全的
+ */
+public abstract class Strategy {
+
+	private final int technique;
+
+	protected Strategy(int technique) {
+		this.technique = technique;
+	}
+
+	/**
+	 * 对应的技巧，见{@link Technique}
+	 *
+	 * @return
+	 */
+	public int getTechnique() {
+		return technique;
+	}
+
+	/**
+	 * 在board上使用一次该技巧
+	 *
+	 * @param board
+	 * @return 是否有所突破(求出了单元格或删除了可选值)
+	 */
+	public abstract boolean apply(CandidateBoard board);
+
+	/**
+	 * 按技巧的权重从小到大排序，即从简单到难、从计算代价小到大
+	 *
+	 * @param strategies
+	 */
+	static void sortByWeight(Strategy[] strategies) {
+		// 插入排序，技巧只有几种
+		for (int i = 1; i < strategies.length; i++) {
+			Strategy s = strategies[i];
+			int w = Technique.getWeight(s.getTechnique());
+			int j = i - 1;
+			while (j >= 0 && Technique.getWeight(strategies[j].getTechnique()) > w) {
+				strategies[j + 1] = strategies[j];
+				j--;
+			}
+			strategies[j + 1] = s;
+		}
+	}
+}
@@ -0,0 +1,257 @@
+package com.lew.scott.puzzle.sudoku.data;
+
+/**
+ * 紧凑的数独矩阵：81个单元格按行展开存放在byte数组中，0表示未填。
+ *
+ * 可以直接包装一段已有的byte数组(从offset开始的81个字节)，不复制，多个SudokuGrid可以是同一个大数组上的视图。
+ * 另有两种外部格式：81字符一行的文本('1'~'9'是数字，'0'和'.'是空白)，
+ * 以及41字节的半字节压缩格式(每个字节高4位是前一个单元格，低4位是后一个，最后一个字节低4位为0)。
+ */
+public class SudokuGrid {
+
+	public static final int LENGTH = SudokuMatrix.SQUARE_LENGTH; // 只表示9*9，半字节放不下16*16的数字
+	public static final int CELL_COUNT = LENGTH * LENGTH;
+	public static final int PACKED_LENGTH = (CELL_COUNT + 1) / 2;
+
+	private final byte[] data;
+	private final int offset;
+
+	/**
+	 * 空白矩阵
+	 */
+	public SudokuGrid() {
+		this(new byte[CELL_COUNT], 0);
+	}
+
+	/**
+	 * 包装data中从offset开始的81个字节，不复制；对本对象的修改直接写入data
+	 *
+	 * @param data
+	 * @param offset
+	 * @throws IllegalArgumentException
+	 */
+	public SudokuGrid(byte[] data, int offset) throws IllegalArgumentException {
+		if (data == null || offset < 0 || offset + CELL_COUNT > data.length) {
+			throw new IllegalArgumentException("初始化数独矩阵的参数错误");
+		}
+		this.data = data;
+		this.offset = offset;
+	}
+
+	/**
+	 * 解析81字符一行的文本，第81个字符之后的内容忽略
+	 *
+	 * @param text
+	 * @return
+	 * @throws IllegalArgumentException
+	 */
+	public static SudokuGrid parse(CharSequence text) throws IllegalArgumentException {
+		if (text == null || text.length() < CELL_COUNT) {
+			throw new IllegalArgumentException("数独文本长度不足" + CELL_COUNT);
+		}
+		SudokuGrid g = new SudokuGrid();
+		for (int i = 0; i < CELL_COUNT; i++) {
+			g.data[i] = (byte) decodeChar(text.charAt(i));
+		}
+		return g;
+	}
+
+	/**
+	 * 从41字节的压缩格式解码
+	 *
+	 * @param packed
+	 * @param offset
+	 * @return
+	 * @throws IllegalArgumentException
+	 */
+	public static SudokuGrid unpack(byte[] packed, int offset) throws IllegalArgumentException {
+		SudokuGrid g = new SudokuGrid();
+		unpack(packed, offset, g.data, 0);
+		return g;
+	}
+
+	/**
+	 * 把41字节的压缩格式解码到dst中从dstOffset开始的81个字节。有大于9的半字节时抛出异常，dst不变
+	 *
+	 * @param packed
+	 * @param offset
+	 * @param dst
+	 * @param dstOffset
+	 * @throws IllegalArgumentException
+	 */
+	public static void unpack(byte[] packed, int offset, byte[] dst, int dstOffset) throws IllegalArgumentException {
+		for (int i = 0; i < CELL_COUNT; i += 2) {
+			int b = packed[offset + (i >> 1)];
+			if (((b >> 4) & 0xF) > LENGTH || (i + 1 < CELL_COUNT && (b & 0xF) > LENGTH)) {
+				throw new IllegalArgumentException("压缩格式中超出范围的数字：第" + (i >> 1) + "个字节");
+			}
+		}
+		for (int i = 0; i < CELL_COUNT; i += 2) {
+			int b = packed[offset + (i >> 1)];
+			dst[dstOffset + i] = (byte) ((b >> 4) & 0xF);
+			if (i + 1 < CELL_COUNT) {
+				dst[dstOffset + i + 1] = (byte) (b & 0xF);
+			}
+		}
+	}
+
+	/**
+	 * 按压缩格式写入dst中从offset开始的41个字节
+	 *
+	 * @param dst
+	 * @param offset
+	 */
+	public void pack(byte[] dst, int offset) {
+		for (int i = 0; i < CELL_COUNT; i += 2) {
+			int hi = data[this.offset + i];
+			int lo = i + 1 < CELL_COUNT ? data[this.offset + i + 1] : 0;
+			dst[offset + (i >> 1)] = (byte) (hi << 4 | lo);
+		}
+	}
+
+	public byte[] pack() {
+		byte[] packed = new byte[PACKED_LENGTH];
+		pack(packed, 0);
+		return packed;
+	}
+
+	/**
+	 * 以81个ASCII字符写入dst中从offset开始的位置，空白写'.'
+	 *
+	 * @param dst
+	 * @param offset
+	 */
+	public void encode(byte[] dst, int offset) {
+		for (int i = 0; i < CELL_COUNT; i++) {
+			int v = data[this.offset + i];
+			dst[offset + i] = (byte) (v == SudokuMatrix.UNSET_VALUE ? '.' : '0' + v);
+		}
+	}
+
+	/**
+	 * 从src中从offset开始的81个ASCII字符解码，覆盖本对象的内容。有非法字符时抛出异常，本对象不变
+	 *
+	 * @param src
+	 * @param offset
+	 * @throws IllegalArgumentException
+	 */
+	public void decode(byte[] src, int offset) throws IllegalArgumentException {
+		for (int i = 0; i < CELL_COUNT; i++) {
+			decodeChar((char) (src[offset + i] & 0xFF));
+		}
+		for (int i = 0; i < CELL_COUNT; i++) {
+			data[this.offset + i] = (byte) decodeChar((char) (src[offset + i] & 0xFF));
+		}
+	}
+
+	public int get(int cell) {
+		return data[offset + cell];
+	}
+
+	public int get(int x, int y) {
+		return data[offset + x * LENGTH + y];
+	}
+
+	public void set(int cell, int value) {
+		data[offset + cell] = (byte) value;
+	}
+
+	public void set(int x, int y, int value) {
+		data[offset + x * LENGTH + y] = (byte) value;
+	}
+
+	/**
+	 * 底层数组，与{@link #getOffset()}一起使用
+	 *
+	 * @return
+	 */
+	public byte[] getData() {
+		return data;
+	}
+
+	public int getOffset() {
+		return offset;
+	}
+
+	/**
+	 * 复制到按行展开的int数组，传给求解器
+	 *
+	 * @param dst
+	 */
+	public void toInts(int[] dst) {
+		for (int i = 0; i < CELL_COUNT; i++) {
+			dst[i] = data[offset + i];
+		}
+	}
+
+	/**
+	 * 用按行展开的int数组覆盖本对象的内容
+	 *
+	 * @param src
+	 */
+	public void fromInts(int[] src) {
+		for (int i = 0; i < CELL_COUNT; i++) {
+			data[offset + i] = (byte) src[i];
+		}
+	}
+
+	/**
+	 * 复制到一个新的独立的SudokuGrid
+	 *
+	 * @return
+	 */
+	public SudokuGrid copy() {
+		SudokuGrid g = new SudokuGrid();
+		System.arraycopy(data, offset, g.data, 0, CELL_COUNT);
+		return g;
+	}
+
+	/**
+	 * 81字符一行的文本，空白为'.'
+	 */
+	@Override
+	public String toString() {
+		char[] chars = new char[CELL_COUNT];
+		for (int i = 0; i < CELL_COUNT; i++) {
+			int v = data[offset + i];
+			chars[i] = (char) (v == SudokuMatrix.UNSET_VALUE ? '.' : '0' + v);
+		}
+		return new String(chars);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof SudokuGrid)) {
+			return false;
+		}
+		SudokuGrid g = (SudokuGrid) o;
+		for (int i = 0; i < CELL_COUNT; i++) {
+			if (data[offset + i] != g.data[g.offset + i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int h = 1;
+		for (int i = 0; i < CELL_COUNT; i++) {
+			h = 31 * h + data[offset + i];
+		}
+		return h;
+	}
+
+	private static int decodeChar(char c) throws IllegalArgumentException {
+		if (c >= '1' && c <= '9') {
+			return c - '0';
+		}
+		if (c == '0' || c == '.') {
+			return SudokuMatrix.UNSET_VALUE;
+		}
+		throw new IllegalArgumentException("非法的数独字符：" + c);
+	}
+}
@@ -0,0 +1,1557 @@
+package com.lew.scott.puzzle.sudoku.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 数独矩阵：生成谜题，求解，校验。
+ * 本类不是线程安全的，多线程时每个线程使用自己的对象，批量并行求解见{@link ParallelBatchSolver}；
+ * {@link #DEBUG}只在单线程调试时设定
+ */
+public class SudokuMatrix {
+	public static boolean DEBUG = false;
+
+	public static final int SQUARE_LENGTH = 9; // 数独矩阵边长
+	public static final int SQUARE_ROOT = 3; // 数独矩阵边长平方根
+	public static final int MIN_ROOT = 2; // 支持4*4到25*25的矩阵，可选值掩码用int的[1,25]位
+	public static final int MAX_ROOT = 5;
+	public static final int MAX_LENGTH = MAX_ROOT * MAX_ROOT;
+	public static final int UNSET_VALUE = 0;
+
+	public static final int MIN_DEGREE = 1;
+	public static final int MAX_DEGREE = 18;
+	public static final int DEFAULT_DEGREE = 3;
+
+	public static final int ENGINE_PROPAGATION = 0; // 推理求解，推理无法继续时回溯搜索
+	public static final int ENGINE_DANCING_LINKS = 1; // 舞蹈链精确覆盖求解
+
+	private final int length; // 数独矩阵边长
+	private final int root; // 数独矩阵边长平方根
+	private int degreeOfPuzzle = DEFAULT_DEGREE;
+	private int solverEngine = ENGINE_PROPAGATION;
+	private int[][] matrix; // 数独矩阵上的数字
+	private int[][] validMatrix;
+	private Cell[][] cells; // 数独矩阵上的单元格
+	private int[] grid; // 按行展开的矩阵，传给求解器
+	private BacktrackSolver searchSolver; // 回溯求解器，推理无法继续时使用
+	private GridValidator validator; // 掩码校验器
+	private DancingLinksSolver dancingLinks; // 舞蹈链求解器，第一次使用时创建
+	private DifficultyGrader grader; // 按技巧评定难度，第一次使用时创建
+	private Strategy[] strategies; // 唯一值推理无法继续时依次尝试的技巧，按权重从小到大
+	private CandidateBoard strategyBoard; // 使用技巧时的状态，第一次使用时创建
+	private int[] strategyMasks;
+	private final StrategyCallback strategyCallback = new StrategyCallback(); // 把技巧删除的可选值转给求解的回调
+	private int[] unitPlaces; // 找隐藏唯一值时，每个数字在域中可选位置的掩码
+	// 求解时待检查的单元格和域(行[0,L)，列[L,2L)，小矩阵[2L,3L)，L为边长)，见solve
+	private int[] cellQueue;
+	private boolean[] cellQueued;
+	private int cellQueueSize;
+	private int[] unitQueue;
+	private boolean[] unitQueued;
+	private int unitQueueSize;
+	private ParallelSearchSolver parallelSearch; // 单个谜题的并行搜索，为null时不用
+	private Random random; // 所有随机选择都用它，设定种子后生成的结果可以重现
+	private boolean permutationFill = true; // 生成数独矩阵时变换规范矩阵，false时随机填充，见generateValidMatrix
+	// 变换规范矩阵时的行、列、数字排列和带(root行或root列)的排列，预先分配
+	private int[] rowPerm;
+	private int[] colPerm;
+	private int[] digitPerm;
+	private int[] bandPerm;
+	// 每行、每列、每个小矩阵中每个数字出现的次数，以及由此得到的已用数字掩码，随matrix的每次修改增量更新
+	private int[][] rowCount;
+	private int[][] colCount;
+	private int[][] boxCount;
+	private int[] rowUsed;
+	private int[] colUsed;
+	private int[] boxUsed;
+	private int[] digitCount; // 每个数字在整个矩阵中出现的次数
+	private int filledCount; // 已填数字的单元格数
+
+	public SudokuMatrix() {
+		this(SQUARE_ROOT, new Random());
+	}
+
+	/**
+	 * 边长为root*root的数独矩阵，例如root为4时是16*16。
+	 * 行、列、小矩阵的掩码和计数在所有尺寸上都是同一套int数组，尺寸只决定数组的长度
+	 * 
+	 * @param root
+	 *            [{@link #MIN_ROOT}, {@link #MAX_ROOT}]
+	 * @param random
+	 * @throws IllegalArgumentException
+	 */
+	public SudokuMatrix(int root, Random random) throws IllegalArgumentException {
+		if (root < MIN_ROOT || root > MAX_ROOT) {
+			throw new IllegalArgumentException("不支持的数独矩阵大小：" + root);
+		}
+		this.root = root;
+		this.length = root * root;
+		matrix = new int[length][length];
+		cells = new Cell[length][length];
+		grid = new int[length * length];
+		rowCount = new int[length][length + 1];
+		colCount = new int[length][length + 1];
+		boxCount = new int[length][length + 1];
+		rowUsed = new int[length];
+		colUsed = new int[length];
+		boxUsed = new int[length];
+		digitCount = new int[length + 1];
+		searchSolver = new BacktrackSolver(root);
+		validator = new GridValidator(root);
+		unitPlaces = new int[length + 1];
+		cellQueue = new int[length * length];
+		cellQueued = new boolean[length * length];
+		unitQueue = new int[length * 3];
+		unitQueued = new boolean[length * 3];
+		rowPerm = new int[length];
+		colPerm = new int[length];
+		digitPerm = new int[length];
+		bandPerm = new int[root];
+		setStrategies(new PointingStrategy(), new ClaimingStrategy(), new NakedSubsetStrategy(Technique.NAKED_PAIR, 2),
+				new XWingStrategy(), new HiddenSubsetStrategy(Technique.HIDDEN_PAIR, 2),
+				new NakedSubsetStrategy(Technique.NAKED_TRIPLE, 3), new HiddenSubsetStrategy(Technique.HIDDEN_TRIPLE, 3));
+		setRandom(random);
+	}
+
+	public SudokuMatrix(int degree) {
+		this();
+		setDegreeOfPuzzle(degree);
+	}
+
+	/**
+	 * 以给定的随机数种子初始化，相同的种子和难度级别生成相同的谜题
+	 * 
+	 * @param degree
+	 * @param seed
+	 */
+	public SudokuMatrix(int degree, long seed) {
+		this(degree);
+		setSeed(seed);
+	}
+
+	/**
+	 * 使用给定的随机数生成器。并行生成时每个线程应使用自己的SudokuMatrix和Random，
+	 * 例如用SplittableRandom.split()为每个线程派生种子，互不竞争
+	 * 
+	 * @param random
+	 */
+	public SudokuMatrix(Random random) {
+		this(SQUARE_ROOT, random);
+	}
+
+	/**
+	 * 根据给定的数字初始化数独矩阵，矩阵的大小由values的行数决定
+	 * 
+	 * @param values
+	 * @throws IllegalArgumentException
+	 */
+	public SudokuMatrix(int[][] values) throws IllegalArgumentException {
+		this(rootOf(values), new Random());
+		initMatrix(values);
+	}
+
+	/**
+	 * 根据紧凑矩阵初始化数独矩阵
+	 * 
+	 * @param values
+	 * @throws IllegalArgumentException
+	 */
+	public SudokuMatrix(SudokuGrid values) throws IllegalArgumentException {
+		this();
+		initMatrix(values);
+	}
+
+	/**
+	 * 根据给定的数字初始化数独矩阵
+	 * 
+	 * @param values
+	 * @throws IllegalArgumentException
+	 */
+	public void initMatrix(int[][] values) throws IllegalArgumentException {
+		if (values == null || values.length != length) {
+			throw new IllegalArgumentException("初始化数独矩阵的参数错误");
+		}
+		for (int i = 0; i < values.length; i++) {
+			if (values[i].length != length) {
+				throw new IllegalArgumentException("初始化数独矩阵的参数错误");
+			}
+		}
+		for (int i = 0; i < matrix.length; i++) {
+			for (int j = 0; j < matrix[i].length; j++) {
+				if (values[i][j] < 1 || values[i][j] > length) {
+					matrix[i][j] = UNSET_VALUE;
+				} else {
+					matrix[i][j] = values[i][j];
+				}
+			}
+		}
+		amendMatrix();
+		solveInit();// 初始化cells
+	}
+
+	/**
+	 * 根据紧凑矩阵初始化数独矩阵，超出范围的数字当作未填
+	 * 
+	 * @param values
+	 * @throws IllegalArgumentException
+	 */
+	public void initMatrix(SudokuGrid values) throws IllegalArgumentException {
+		if (values == null || length != SudokuGrid.LENGTH) {
+			throw new IllegalArgumentException("初始化数独矩阵的参数错误");
+		}
+		for (int i = 0; i < matrix.length; i++) {
+			for (int j = 0; j < matrix[i].length; j++) {
+				int v = values.get(i, j);
+				matrix[i][j] = (v < 1 || v > length) ? UNSET_VALUE : v;
+			}
+		}
+		amendMatrix();
+		solveInit();// 初始化cells
+	}
+
+	/**
+	 * 检验一个不完全矩阵是否是一个合法的矩阵，如果含有重复数字则修正
+	 * 
+	 * @return
+	 */
+	private void amendMatrix() {
+		validator.amend(matrix);
+	}
+
+	/**
+	 * 返回当前数独矩阵
+	 * 
+	 * @return
+	 */
+	public int[][] getMatrix() {
+		return cloneMatrix(matrix);
+	}
+
+	/**
+	 * 得到和当前数独谜题矩阵对应的结果矩阵
+	 * 
+	 * @return
+	 */
+	public int[][] getAnswerMatrix() {
+		if (validMatrix == null)
+			return null;
+		return cloneMatrix(validMatrix);
+	}
+
+	/**
+	 * 把当前数独矩阵写入dst，不创建新对象
+	 * 
+	 * @param dst
+	 * @return dst
+	 */
+	public SudokuGrid getGrid(SudokuGrid dst) {
+		checkGridSize();
+		for (int i = 0; i < matrix.length; i++) {
+			for (int j = 0; j < matrix[i].length; j++) {
+				dst.set(i, j, matrix[i][j]);
+			}
+		}
+		return dst;
+	}
+
+	public SudokuGrid getGrid() {
+		return getGrid(new SudokuGrid());
+	}
+
+	/**
+	 * 和当前数独谜题对应的结果，没有时返回null
+	 * 
+	 * @return
+	 */
+	public SudokuGrid getAnswerGrid() {
+		if (validMatrix == null) {
+			return null;
+		}
+		checkGridSize();
+		SudokuGrid g = new SudokuGrid();
+		for (int i = 0; i < validMatrix.length; i++) {
+			for (int j = 0; j < validMatrix[i].length; j++) {
+				g.set(i, j, validMatrix[i][j]);
+			}
+		}
+		return g;
+	}
+
+	/**
+	 * 返回numbers的克隆矩阵
+	 * 
+	 * @return
+	 */
+	private int[][] cloneMatrix(int[][] srcMatrix) {
+		if (srcMatrix == null) {
+			srcMatrix = this.matrix;
+		}
+		int[][] aa = new int[length][length];
+		for (int i = 0; i < length; i++) {
+			System.arraycopy(srcMatrix[i], 0, aa[i], 0, length);
+		}
+		return aa;
+	}
+
+	public int getDegreeOfPuzzle() {
+		return degreeOfPuzzle;
+	}
+
+	public void setDegreeOfPuzzle(int degree) {
+		if (degree < MIN_DEGREE || degree > MAX_DEGREE) {
+			degree = DEFAULT_DEGREE;
+		}
+		this.degreeOfPuzzle = degree;
+	}
+
+	public int getSolverEngine() {
+		return solverEngine;
+	}
+
+	/**
+	 * 设定求解引擎，{@link #ENGINE_PROPAGATION}或{@link #ENGINE_DANCING_LINKS}
+	 * 
+	 * @param engine
+	 */
+	public void setSolverEngine(int engine) {
+		if (engine != ENGINE_DANCING_LINKS) {
+			engine = ENGINE_PROPAGATION;
+		}
+		this.solverEngine = engine;
+	}
+
+	public Random getRandom() {
+		return random;
+	}
+
+	/**
+	 * 设定随机数生成器，生成数独矩阵和谜题时的所有随机选择都由它决定
+	 * 
+	 * @param random
+	 */
+	public void setRandom(Random random) {
+		if (random == null) {
+			random = new Random();
+		}
+		this.random = random;
+	}
+
+	public boolean isPermutationFill() {
+		return permutationFill;
+	}
+
+	/**
+	 * 设定{@link #generateValidMatrix()}的方法：true(默认)时随机变换一个规范矩阵，很快但只能得到全部合法矩阵中的一部分；
+	 * false时用回溯求解器随机填充，可以得到任意合法矩阵
+	 * 
+	 * @param permutationFill
+	 */
+	public void setPermutationFill(boolean permutationFill) {
+		this.permutationFill = permutationFill;
+	}
+
+	/**
+	 * 设定随机数种子，之后的生成过程可以按同样的种子重现
+	 * 
+	 * @param seed
+	 */
+	public void setSeed(long seed) {
+		random.setSeed(seed);
+	}
+
+	/**
+	 * 生成一个数独谜题矩阵
+	 * 
+	 * @return
+	 */
+	public int[][] generatePuzzle() {
+		this.validMatrix = this.generateValidMatrix();
+		for (int i = 0; i < matrix.length; i++) {
+			for (int k = 0; k < degreeOfPuzzle; k++) {
+				int iRnd = random.nextInt(length);
+				matrix[i][iRnd] = UNSET_VALUE;
+			}
+		}
+		solveInit();// 初始化cells
+		return cloneMatrix(matrix);
+	}
+
+	/**
+	 * 生成有唯一解的数独谜题：从一个合法的数独矩阵中按随机顺序挖去数字，每挖一次都验证解仍然唯一，
+	 * 直到只剩clueCount个数字，或者再挖任何一个都不再唯一为止。
+	 * 验证只在按行展开的矩阵上用回溯求解器进行，挖的过程中不重新初始化单元格
+	 * 
+	 * @param clueCount
+	 *            目标提示数字个数
+	 * @param symmetric
+	 *            是否按中心对称成对地挖
+	 * @return
+	 */
+	public int[][] generateUniquePuzzle(int clueCount, boolean symmetric) {
+		final int cellCount = length * length;
+		this.validMatrix = this.generateValidMatrix();
+		int[] answer = new int[cellCount];
+		for (int i = 0; i < length; i++) {
+			System.arraycopy(validMatrix[i], 0, answer, i * length, length);
+		}
+		System.arraycopy(answer, 0, grid, 0, cellCount);
+		// 挖的顺序，对称时只需要前一半(含中心)
+		int orderLength = symmetric ? (cellCount + 1) / 2 : cellCount;
+		int[] order = new int[orderLength];
+		for (int k = 0; k < orderLength; k++) {
+			order[k] = k;
+		}
+		for (int k = orderLength - 1; k > 0; k--) {
+			int r = random.nextInt(k + 1);
+			int tmp = order[k];
+			order[k] = order[r];
+			order[r] = tmp;
+		}
+		int clues = cellCount;
+		for (int k = 0; k < orderLength && clues > clueCount; k++) {
+			int p = order[k];
+			int q = cellCount - 1 - p;// 对称位置
+			boolean pair = symmetric && q != p;
+			if (pair && clues - 2 < clueCount) {
+				continue;
+			}
+			grid[p] = UNSET_VALUE;
+			if (pair) {
+				grid[q] = UNSET_VALUE;
+			}
+			// 原来的解唯一，新解必然在挖去的单元格上与原来的解不同
+			boolean unique = !searchSolver.hasSolutionExcluding(grid, p, answer[p]);
+			if (unique && pair) {
+				grid[p] = answer[p];
+				unique = !searchSolver.hasSolutionExcluding(grid, q, answer[q]);
+				grid[p] = UNSET_VALUE;
+			}
+			if (unique) {
+				clues -= pair ? 2 : 1;
+			} else {// 不再唯一，放回去
+				grid[p] = answer[p];
+				if (pair) {
+					grid[q] = answer[q];
+				}
+			}
+		}
+		for (int i = 0; i < length; i++) {
+			System.arraycopy(grid, i * length, matrix[i], 0, length);
+		}
+		solveInit();// 初始化cells
+		return cloneMatrix(matrix);
+	}
+
+	/**
+	 * 生成一个合法的数独矩阵。
+	 * 默认随机变换规范矩阵(第r行第c列为(root*(r%root) + r/root + c)%length + 1)：打乱带的顺序、每个带内行的顺序，
+	 * 列也一样，再随机转置、随机替换数字。这些变换都保持数独的性质，填充时不分配对象。
+	 * {@link #setPermutationFill(boolean)}为false时，先用随机排列填充对角线上的root*root小矩阵(它们互不影响)，
+	 * 再用回溯求解器随机填充其余单元格：每次选可选值最少的单元格，按随机顺序尝试可选值。搜索是完备的，所以不会失败
+	 * 
+	 * @return
+	 */
+	public int[][] generateValidMatrix() {
+		if (permutationFill) {
+			fillByPermutation();
+		} else {
+			fillBySearch();
+		}
+		for (int i = 0; i < matrix.length; i++) {
+			System.arraycopy(grid, i * length, matrix[i], 0, length);
+			for (int j = 0; j < matrix[i].length; j++) {
+				Cell c = cells[i][j];
+				if (c == null) {
+					cells[i][j] = c = new Cell(matrix[i][j]);
+				} else {
+					c.initByValue(matrix[i][j]);
+				}
+			}
+		}
+		rebuildUnitState();
+		if (DEBUG) {
+			printMatrix(matrix);
+		}
+		// 返回克隆的数据，保护内部数据
+		return cloneMatrix(matrix);
+	}
+
+	/**
+	 * 随机变换规范矩阵，写入grid
+	 */
+	private void fillByPermutation() {
+		randomLinePermutation(rowPerm);
+		randomLinePermutation(colPerm);
+		for (int k = 0; k < length; k++) {
+			digitPerm[k] = k + 1;
+		}
+		shuffle(digitPerm, 0, length);
+		boolean transpose = random.nextBoolean();
+		for (int i = 0; i < length; i++) {
+			for (int j = 0; j < length; j++) {
+				int r = rowPerm[i], c = colPerm[j];
+				if (transpose) {
+					int t = r;
+					r = c;
+					c = t;
+				}
+				grid[i * length + j] = digitPerm[(root * (r % root) + r / root + c) % length];
+			}
+		}
+	}
+
+	/**
+	 * 随机的行(列)排列：带按随机顺序排列，每个带内的root行(列)也按随机顺序排列
+	 * 
+	 * @param perm
+	 *            第k个位置放原来的第perm[k]行(列)
+	 */
+	private void randomLinePermutation(int[] perm) {
+		for (int b = 0; b < root; b++) {
+			bandPerm[b] = b;
+		}
+		shuffle(bandPerm, 0, root);
+		for (int b = 0; b < root; b++) {
+			for (int k = 0; k < root; k++) {
+				perm[b * root + k] = bandPerm[b] * root + k;
+			}
+			shuffle(perm, b * root, root);
+		}
+	}
+
+	/**
+	 * Fisher-Yates 洗牌，打乱a中从from开始的n个元素
+	 */
+	private void shuffle(int[] a, int from, int n) {
+		for (int k = n - 1; k > 0; k--) {
+			int r = random.nextInt(k + 1);
+			int t = a[from + k];
+			a[from + k] = a[from + r];
+			a[from + r] = t;
+		}
+	}
+
+	/**
+	 * 随机填充对角线小矩阵，再用回溯求解器随机填充其余单元格，写入grid
+	 */
+	private void fillBySearch() {
+		for (int i = 0; i < grid.length; i++) {
+			grid[i] = UNSET_VALUE;
+		}
+		for (int b = 0; b < length; b += root + 1) {
+			int top = b / root * root, left = b % root * root;
+			// Fisher-Yates 洗牌，直接写入小矩阵
+			for (int k = 0; k < length; k++) {
+				int r = random.nextInt(k + 1);
+				int pk = (top + k / root) * length + left + k % root;
+				int pr = (top + r / root) * length + left + r % root;
+				grid[pk] = grid[pr];
+				grid[pr] = k + 1;
+			}
+		}
+		if (!searchSolver.fillRandom(grid, random)) {
+			// 对角线小矩阵的任意填法都有解，这里只是保险起见
+			for (int i = 0; i < grid.length; i++) {
+				grid[i] = UNSET_VALUE;
+			}
+			searchSolver.fillRandom(grid, random);
+		}
+	}
+
+	/**
+	 * 根据数独规则，计算在坐标(x,y)处可选的数字列表
+	 * 
+	 * @param x
+	 * @param y
+	 * @return
+	 */
+	public ArrayList<Integer> calcOptValueList(int x, int y) {
+		return Candidates.toList(calcCandidates(x, y));
+	}
+
+	/**
+	 * 根据数独规则，计算在坐标(x,y)处可选数字的掩码，见{@link Candidates}
+	 * 
+	 * @param x
+	 * @param y
+	 * @return
+	 */
+	public int calcCandidates(int x, int y) {
+		// 除去同一行、同一列、同一个小矩阵中已经有的数字
+		int used = rowUsed[x] | colUsed[y] | boxUsed[boxOf(x, y)];
+		return Candidates.all(length) & ~used;
+	}
+
+	/**
+	 * 在控制台打印数独矩阵，用制表符表示单元格
+	 * 
+	 * @param matrix
+	 */
+	public static void printMatrix(int[][] matrix) {
+		int length = matrix.length;
+		int root = (int) Math.round(Math.sqrt(length));
+		StringBuilder line = new StringBuilder(" ");
+		for (int k = 0; k < length * 2 + root * 2 + 1; k++) {
+			line.append('─');
+		}
+		String border = line.append(' ').toString();
+		System.out.println(border);
+		for (int i = 0; i < matrix.length; i++) {
+			System.out.print(" │ ");
+			for (int j = 0; j < matrix[i].length; j++) {
+				int v = matrix[i][j];
+				System.out.print((v < 1 || v > length) ? ' ' : Character.forDigit(v, length + 1));
+				if (j % root == (root - 1)) {
+					System.out.print(" │ ");
+				} else {
+					System.out.print("|");
+				}
+			}
+			System.out.println();
+			if (i % root == (root - 1)) {
+				System.out.println(border);
+			}
+		}
+	}
+
+	/**
+	 * 数独矩阵边长
+	 * 
+	 * @return
+	 */
+	public int getLength() {
+		return length;
+	}
+
+	/**
+	 * 小矩阵边长，即边长的平方根
+	 * 
+	 * @return
+	 */
+	public int getRoot() {
+		return root;
+	}
+
+	/**
+	 * 求解矩阵中没有设定的单元格
+	 * 
+	 * @return
+	 */
+	public boolean solve() {
+		return solve(null);
+	}
+
+	/**
+	 * 求解矩阵中没有设定的单元格，每次迭代结束都之行callBack方法。
+	 * 迭代指处理完一次队列(一轮传播)，iterateCallback的itrTimes是到此为止的轮数，与DifficultyGrader相同。
+	 * callBack是{@link TechniqueCallback}时还报告技巧；要在求解之后再慢慢展示过程，
+	 * 用{@link SolveTrace}全速记录，再用{@link SolveTraceReplayer}回放
+	 * 
+	 * @return
+	 */
+	public boolean solve(SolveCallback callBack) {
+		// 初始化
+		solveInit();
+		if (solverEngine == ENGINE_DANCING_LINKS) {
+			// 精确覆盖一次求出所有单元格，没有迭代过程
+			boolean solved = solveBySearch(callBack);
+			if (callBack != null) {
+				callBack.iterateCallback(1, solved, solved);
+			}
+			return solved;
+		}
+
+		/*
+		 * 待检查的单元格(是否只剩一个可选值)和域(是否有隐藏唯一值)放在队列中，开始时全部入队。
+		 * 之后只有单元格的可选值变化了，才把它和它所在的3个域重新入队，所以总的工作量与变化的次数成正比，
+		 * 而不是每一轮都扫描所有单元格
+		 */
+		clearQueues();
+		for (int i = 0; i < matrix.length; i++) {
+			for (int j = 0; j < matrix[i].length; j++) {
+				if (!cells[i][j].isPreset()) {
+					enqueueCell(i, j);
+				}
+			}
+		}
+		for (int u = 0; u < length * 3; u++) {
+			enqueueUnit(u);
+		}
+		int count = 0, circle = 0;
+		boolean isAllSolved = !hasUnsolvedCell();// 所有已经被解决
+		while (!isAllSolved) {
+			circle++;
+			boolean hasAchievement = false;// 这一轮中有所突破，即有单元格被求解了
+			// (1) 先取单元格，如果可选值只有一个，则表示已解决
+			// (2) 单元格队列空了再取域，如果一个数字只出现在域中某一个单元格的可选值里，则该单元格的数字确定
+			while (cellQueueSize > 0 || unitQueueSize > 0) {
+				count++;
+				if (cellQueueSize > 0) {
+					int p = cellQueue[--cellQueueSize];
+					cellQueued[p] = false;
+					int i = p / length, j = p % length;
+					Cell c = cells[i][j];
+					int m = c.getCandidates();
+					if (!c.isPreset() && !c.isSolved() && m != 0 && (m & (m - 1)) == 0) {
+						solveCell(i, j, Integer.numberOfTrailingZeros(m), Technique.NAKED_SINGLE, callBack);
+						hasAchievement = true;
+					}
+				} else {
+					int u = unitQueue[--unitQueueSize];
+					unitQueued[u] = false;
+					if (solveHiddenSingles(u, callBack)) {
+						hasAchievement = true;
+					}
+				}
+			}
+			isAllSolved = !hasUnsolvedCell();
+			// 队列处理完一次算一轮，count是已经处理的队列项数，只用于调试输出
+			if (callBack != null) {
+				callBack.iterateCallback(circle, isAllSolved, hasAchievement);
+			}
+			if (DEBUG) {
+				System.out.println("circle = " + circle);
+				System.out.println("count = " + count);
+				System.out.println("hasAchievement = " + hasAchievement);
+				printMatrix(matrix);
+			}
+			if (isAllSolved) {
+				break;
+			}
+			// (3) 按权重从小到大尝试其他技巧，删除可选值，变化了的单元格重新入队
+			if (solveByStrategies(callBack)) {
+				if (DEBUG) {
+					System.out.println("hasAchievement = by strategies");
+				}
+				continue;
+			}
+			// 用回溯搜索求解剩余的单元格
+			boolean solved = solveBySearch(callBack);
+			if (DEBUG) {
+				System.out.println("circle = " + circle);
+				System.out.println("count = " + count);
+				System.out.println("hasAchievement = by search " + solved);
+				printMatrix(matrix);
+			}
+			if (!solved) {
+				break;// 搜索也失败了，无解
+			}
+			isAllSolved = !hasUnsolvedCell();
+		}
+		if (DEBUG) {
+			if (!isAllSolved) {
+				for (int i = 0; i < matrix.length; i++) {
+					for (int j = 0; j < matrix[i].length; j++) {
+						Cell c = cells[i][j];
+						if (!c.isPreset() && !c.isSolved()) {
+							System.out.println("(" + i + "," + j + ") " + Candidates.toList(c.getCandidates()));
+						}
+					}
+				}
+			}
+		}
+		return isAllSolved;
+	}
+
+	/**
+	 * 依次尝试{@link #strategies}，删除的可选值写回单元格。技巧只删除可选值，求出单元格留给步骤(1)(2)。
+	 * 每删除一个可选值回调一次reduceCellCallback；callBack是{@link TechniqueCallback}时还报告使用的技巧和删除的可选值
+	 * 
+	 * @param callBack
+	 * @return 是否有所突破
+	 */
+	private boolean solveByStrategies(SolveCallback callBack) {
+		if (strategies.length == 0) {
+			return false;
+		}
+		if (strategyBoard == null) {
+			strategyBoard = new CandidateBoard(root);
+			strategyMasks = new int[length * length];
+		}
+		loadGrid();
+		for (int i = 0; i < matrix.length; i++) {
+			for (int j = 0; j < matrix[i].length; j++) {
+				Cell c = cells[i][j];
+				strategyMasks[i * length + j] = (c.isPreset() || c.isSolved()) ? 0 : c.getCandidates();
+			}
+		}
+		CandidateBoard board = strategyBoard;
+		board.load(grid, strategyMasks);
+		TechniqueCallback techniqueCallBack = callBack instanceof TechniqueCallback ? (TechniqueCallback) callBack : null;
+		if (callBack != null) {
+			strategyCallback.target = callBack;
+			board.setCallback(strategyCallback);
+		}
+		boolean achieved = false;
+		try {
+			// 有所突破后从最简单的技巧重新开始，直到出现唯一可选值或隐藏唯一值，再交给步骤(1)(2)
+			boolean progress = true;
+			while (progress && !hasSingle(board)) {
+				progress = false;
+				for (int k = 0; k < strategies.length; k++) {
+					if (strategies[k].apply(board)) {
+						progress = achieved = true;
+						if (techniqueCallBack != null) {
+							techniqueCallBack.techniqueCallback(strategies[k].getTechnique());
+						}
+						break;
+					}
+				}
+			}
+		} finally {
+			board.setCallback(null);
+			strategyCallback.target = null;
+		}
+		if (!achieved) {
+			return false;
+		}
+		for (int i = 0; i < matrix.length; i++) {
+			for (int j = 0; j < matrix[i].length; j++) {
+				Cell c = cells[i][j];
+				if (c.isPreset() || c.isSolved()) {
+					continue;
+				}
+				int m = board.getCandidates(i * length + j);
+				if (c.getCandidates() != m) {
+					c.setCandidates(m);
+					enqueueCell(i, j);
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * board上是否已经出现唯一可选值或隐藏唯一值(或者矛盾)，可以交回步骤(1)(2)
+	 */
+	private static boolean hasSingle(CandidateBoard board) {
+		if (board.hasContradiction()) {
+			return true;
+		}
+		for (int i = 0; i < board.cellCount; i++) {
+			int m = board.candidates[i];
+			if (m != 0 && (m & (m - 1)) == 0) {
+				return true;
+			}
+		}
+		for (int u = 0; u < board.units.length; u++) {
+			int[] unit = board.units[u];
+			int once = 0, more = 0;
+			for (int k = 0; k < unit.length; k++) {
+				int m = board.candidates[unit[k]];
+				more |= once & m;
+				once |= m;
+			}
+			if ((once & ~more) != 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * 设定唯一值推理无法继续时依次尝试的技巧，会按权重从小到大排序；不给任何技巧时直接搜索
+	 * 
+	 * @param strategies
+	 */
+	public void setStrategies(Strategy... strategies) {
+		Strategy[] sorted = strategies.clone();
+		Strategy.sortByWeight(sorted);
+		this.strategies = sorted;
+	}
+
+	/**
+	 * 用当前的求解引擎搜索剩余的单元格，并逐个回调
+	 * 
+	 * @param callBack
+	 * @return 是否有解
+	 */
+	private boolean solveBySearch(SolveCallback callBack) {
+		loadGrid();
+		boolean solved;
+		if (solverEngine == ENGINE_DANCING_LINKS) {
+			solved = getDancingLinks().solve(grid);
+		} else if (parallelSearch != null) {
+			solved = parallelSearch.solve(grid);
+		} else {
+			solved = searchSolver.solve(grid);
+		}
+		if (!solved) {
+			return false;
+		}
+		for (int i = 0; i < matrix.length; i++) {
+			for (int j = 0; j < matrix[i].length; j++) {
+				Cell c = cells[i][j];
+				if (!c.isPreset() && !c.isSolved()) {
+					solveCell(i, j, grid[i * length + j], -1, callBack);
+				}
+			}
+		}
+		if (callBack instanceof TechniqueCallback) {
+			((TechniqueCallback) callBack).techniqueCallback(Technique.SEARCH);
+		}
+		return true;
+	}
+
+	/**
+	 * 求解按行展开的矩阵，0表示待求解，成功时把结果写回values。
+	 * 只用当前的求解引擎(ENGINE_PROPAGATION时直接用回溯求解器)，不改变本对象的数独矩阵和单元格，
+	 * 所以批量求解时每个线程可以反复使用同一个对象，不必为每个谜题创建SudokuMatrix
+	 * 
+	 * @param values
+	 * @return 是否有解
+	 * @throws IllegalArgumentException
+	 */
+	public boolean solveGrid(int[] values) throws IllegalArgumentException {
+		if (values == null || values.length != length * length) {
+			throw new IllegalArgumentException("初始化数独矩阵的参数错误");
+		}
+		if (solverEngine == ENGINE_DANCING_LINKS) {
+			return getDancingLinks().solve(values);
+		}
+		if (parallelSearch != null) {
+			return parallelSearch.solve(values);
+		}
+		return searchSolver.solve(values);
+	}
+
+	/**
+	 * 求解紧凑矩阵，成功时把结果写回values，同{@link #solveGrid(int[])}
+	 * 
+	 * @param values
+	 * @return 是否有解
+	 */
+	public boolean solveGrid(SudokuGrid values) {
+		checkGridSize();
+		values.toInts(grid);
+		if (!solveGrid(grid)) {
+			return false;
+		}
+		values.fromInts(grid);
+		return true;
+	}
+
+	/**
+	 * 计算当前数独矩阵解的个数，达到limit时立即停止。
+	 * limit为2即可判断谜题是否有唯一解，找到第二个解就不再继续搜索
+	 * 
+	 * @param limit
+	 * @return [0, limit]之间的解的个数
+	 */
+	public int countSolutions(int limit) {
+		loadGrid();
+		if (solverEngine == ENGINE_DANCING_LINKS) {
+			return getDancingLinks().countSolutions(grid, limit);
+		}
+		return searchSolver.countSolutions(grid, limit);
+	}
+
+	/**
+	 * 当前数独矩阵是否有且只有一个解
+	 * 
+	 * @return
+	 */
+	public boolean hasUniqueSolution() {
+		return countSolutions(2) == 1;
+	}
+
+	/**
+	 * 按求解技巧评定当前谜题的难度，不改变数独矩阵，见{@link DifficultyGrader}。
+	 * 与{@link #getDegreeOfPuzzle()}不同，它反映的是求解真正需要的技巧
+	 * 
+	 * @return 评级，谜题无解时返回-1
+	 */
+	public int gradePuzzle() {
+		return gradePuzzle(null);
+	}
+
+	/**
+	 * 按求解技巧评定当前谜题的难度，每一步通过callBack报告
+	 * 
+	 * @param callBack
+	 * @return 评级，谜题无解时返回-1
+	 */
+	public int gradePuzzle(TechniqueCallback callBack) {
+		loadGrid();
+		return getGrader().grade(grid, callBack);
+	}
+
+	/**
+	 * 评定难度用的对象，可以查询上次评定中每种技巧的使用次数等
+	 * 
+	 * @return
+	 */
+	public DifficultyGrader getGrader() {
+		if (grader == null) {
+			grader = new DifficultyGrader(root, new NakedSingleStrategy(), new HiddenSingleStrategy(),
+					new PointingStrategy(), new ClaimingStrategy(), new NakedSubsetStrategy(Technique.NAKED_PAIR, 2),
+					new XWingStrategy(), new HiddenSubsetStrategy(Technique.HIDDEN_PAIR, 2),
+					new NakedSubsetStrategy(Technique.NAKED_TRIPLE, 3),
+					new HiddenSubsetStrategy(Technique.HIDDEN_TRIPLE, 3));
+		}
+		return grader;
+	}
+
+	/**
+	 * 把数独矩阵按行展开到grid，传给求解器
+	 */
+	private void loadGrid() {
+		for (int i = 0; i < length; i++) {
+			System.arraycopy(matrix[i], 0, grid, i * length, length);
+		}
+	}
+
+	/**
+	 * 设定单个谜题的并行搜索：ENGINE_PROPAGATION推理无法继续时，在前几个分支点拆分，
+	 * 由pool的多个线程同时搜索，适合求解很难的单个谜题。pool为null时恢复单线程搜索。
+	 * 批量求解大量谜题时按谜题并行({@link ParallelBatchSolver})效率更高，不要同时使用
+	 * 
+	 * @param pool
+	 */
+	public void setParallelSearch(ForkJoinPool pool) {
+		parallelSearch = pool == null ? null : new ParallelSearchSolver(pool, ParallelSearchSolver.DEFAULT_SPLIT_DEPTH, root);
+	}
+
+	public boolean isParallelSearch() {
+		return parallelSearch != null;
+	}
+
+	private DancingLinksSolver getDancingLinks() {
+		if (dancingLinks == null) {
+			dancingLinks = new DancingLinksSolver(root);
+		}
+		return dancingLinks;
+	}
+
+	/**
+	 * 求解初始化
+	 */
+	public void solveInit() {
+		rebuildUnitState();
+		for (int i = 0; i < matrix.length; i++) {
+			for (int j = 0; j < matrix[i].length; j++) {
+				Cell c = cells[i][j];
+				if (c == null) {
+					cells[i][j] = c = new Cell(matrix[i][j]);
+				} else {
+					c.initByValue(matrix[i][j]);
+				}
+				if (!c.isPreset()) {
+					c.setCandidates(calcCandidates(i, j));
+				}
+			}
+		}
+	}
+
+	/**
+	 * 用值v求解单元格(x,y)，归约相关单元格的可选值，并回调。
+	 * callBack是{@link TechniqueCallback}且technique不小于0时，最后报告求出它的技巧
+	 * 
+	 * @param x
+	 * @param y
+	 * @param v
+	 * @param technique
+	 * @param callBack
+	 */
+	private void solveCell(int x, int y, int v, int technique, SolveCallback callBack) {
+		cells[x][y].solveByValue(v);
+		putValue(x, y, v);
+		if (callBack != null) {
+			callBack.solveCellCallback(x, y, v);
+		}
+		// 单元格的其他可选值没有了，所在的域可能出现隐藏唯一值
+		enqueueUnit(x);
+		enqueueUnit(length + y);
+		enqueueUnit(length * 2 + boxOf(x, y));
+		reduceOptValue(x, y);
+		if (callBack != null) {
+			callBack.reduceCellCallback(x, y, v);
+			if (technique >= 0 && callBack instanceof TechniqueCallback) {
+				((TechniqueCallback) callBack).techniqueCallback(technique);
+			}
+		}
+	}
+
+	/**
+	 * 按坐标(x,y)的值，归约域(行,列,小矩阵)的可选值列表，可选值变化了的单元格入队
+	 * 
+	 * @param x
+	 * @param y
+	 */
+	private void reduceOptValue(int x, int y) {
+		int v = matrix[x][y];
+		// 从该行未解决的单元格中删除v
+		for (int t = 0; t < matrix[x].length; t++) {
+			reduceCell(x, t, v);
+		}
+		// 从该列未解决的单元格中删除v
+		for (int s = 0; s < matrix.length; s++) {
+			reduceCell(s, y, v);
+		}
+		// 从该小矩阵未解决的单元格中删除v
+		int top = x / root * root, left = y - y % root;
+		for (int s = top; s < top + root; s++) {
+			for (int t = left; t < left + root; t++) {
+				reduceCell(s, t, v);
+			}
+		}
+	}
+
+	private void reduceCell(int x, int y, int v) {
+		Cell tmpC = cells[x][y];
+		if (!tmpC.isPreset() && !tmpC.isSolved() && tmpC.removeCandidate(v)) {
+			enqueueCell(x, y);
+		}
+	}
+
+	private void clearQueues() {
+		while (cellQueueSize > 0) {
+			cellQueued[cellQueue[--cellQueueSize]] = false;
+		}
+		while (unitQueueSize > 0) {
+			unitQueued[unitQueue[--unitQueueSize]] = false;
+		}
+	}
+
+	/**
+	 * 单元格(x,y)和它所在的行、列、小矩阵入队，已在队列中的不重复入队
+	 */
+	private void enqueueCell(int x, int y) {
+		int p = x * length + y;
+		if (!cellQueued[p]) {
+			cellQueued[p] = true;
+			cellQueue[cellQueueSize++] = p;
+		}
+		enqueueUnit(x);
+		enqueueUnit(length + y);
+		enqueueUnit(length * 2 + boxOf(x, y));
+	}
+
+	private void enqueueUnit(int u) {
+		if (!unitQueued[u]) {
+			unitQueued[u] = true;
+			unitQueue[unitQueueSize++] = u;
+		}
+	}
+
+	/**
+	 * 在第u个域(行[0,L)，列[L,2L)，小矩阵[2L,3L))中找隐藏唯一值并求解
+	 * 
+	 * @param u
+	 * @param callBack
+	 * @return 是否求解了单元格
+	 */
+	private boolean solveHiddenSingles(int u, SolveCallback callBack) {
+		int[] places = unitPlaces;
+		for (int v = 1; v <= length; v++) {
+			places[v] = 0;
+		}
+		// 每个数字在域中可选位置(域内序号)的掩码
+		for (int k = 0; k < length; k++) {
+			Cell c = cells[unitRow(u, k)][unitCol(u, k)];
+			if (c.isPreset() || c.isSolved()) {
+				continue;
+			}
+			for (int m = c.getCandidates(); m != 0; m &= m - 1) {
+				places[Integer.numberOfTrailingZeros(m)] |= 1 << k;
+			}
+		}
+		boolean achieved = false;
+		for (int v = 1; v <= length; v++) {
+			int p = places[v];
+			if (p == 0 || (p & (p - 1)) != 0) {
+				continue;
+			}
+			int k = Integer.numberOfTrailingZeros(p);
+			int i = unitRow(u, k), j = unitCol(u, k);
+			Cell c = cells[i][j];
+			// 同一遍中前面求解的单元格可能已经改变了它
+			if (c.isPreset() || c.isSolved() || !c.hasCandidate(v)) {
+				continue;
+			}
+			if (DEBUG) {
+				System.out.println("hasAchievement = (" + i + "," + j + ") special value in same "
+						+ (u < length ? "row" : u < length * 2 ? "column" : "block"));
+			}
+			solveCell(i, j, v, Technique.HIDDEN_SINGLE, callBack);
+			achieved = true;
+		}
+		return achieved;
+	}
+
+	/**
+	 * 第u个域中第k个单元格的行
+	 */
+	private int unitRow(int u, int k) {
+		if (u < length) {
+			return u;
+		}
+		if (u < length * 2) {
+			return k;
+		}
+		int b = u - length * 2;
+		return b / root * root + k / root;
+	}
+
+	/**
+	 * 第u个域中第k个单元格的列
+	 */
+	private int unitCol(int u, int k) {
+		if (u < length) {
+			return k;
+		}
+		if (u < length * 2) {
+			return u - length;
+		}
+		int b = u - length * 2;
+		return b % root * root + k % root;
+	}
+
+	/**
+	 * 检测是否还有未填充的单元格
+	 * 
+	 * @return
+	 */
+	public boolean hasUnsolvedCell() {
+		return filledCount < length * length;
+	}
+
+	/**
+	 * 未填充的单元格的数量
+	 * 
+	 * @return
+	 */
+	public int unsolvedCount() {
+		return length * length - filledCount;
+	}
+
+	/**
+	 * 数字v在矩阵中已经填了几次
+	 * 
+	 * @param v
+	 * @return
+	 */
+	public int getDigitCount(int v) {
+		if (v < 1 || v > length) {
+			return 0;
+		}
+		return digitCount[v];
+	}
+
+	/**
+	 * 判断 (x,y)坐标处的单元格是否已被解决
+	 * 
+	 * @param x
+	 * @param y
+	 * @return
+	 */
+	public boolean isCellSolved(int x, int y) {
+		return cells[x][y].isPreset() || cells[x][y].isSolved();
+	}
+
+	/**
+	 * 获得 (x,y)坐标处的值
+	 * 
+	 * @param x
+	 * @param y
+	 * @return
+	 */
+	public int getCellValue(int x, int y) {
+		return matrix[x][y];
+	}
+
+	/**
+	 * 获得 (x,y)坐标处的可选值
+	 * 
+	 * @param x
+	 * @param y
+	 * @return
+	 */
+	public ArrayList<Integer> getCellOptValueList(int x, int y) {
+		Cell c = cells[x][y];
+		if (c.isPreset() || c.isSolved()) {
+			return null;
+		}
+		if (c.isEmpty()) {
+			c.setCandidates(calcCandidates(x, y));
+		}
+		return c.getOptValueList();
+	}
+
+	/**
+	 * 获得 (x,y)坐标处的可选值掩码，已解决的单元格返回0
+	 * 
+	 * @param x
+	 * @param y
+	 * @return
+	 */
+	public int getCellCandidates(int x, int y) {
+		Cell c = cells[x][y];
+		if (c.isPreset() || c.isSolved()) {
+			return 0;
+		}
+		if (c.isEmpty()) {
+			c.setCandidates(calcCandidates(x, y));
+		}
+		return c.getCandidates();
+	}
+
+	public Cell getCell(int x, int y) {
+		return cells[x][y];
+	}
+
+	public void setCellSolved(int x, int y) {
+		cells[x][y].setSolved(true);
+	}
+
+	/**
+	 * 设定坐标(x,y)处的值，如果合法这设置成功，不合法则失败(该单元格被清空)
+	 * 
+	 * @param x
+	 * @param y
+	 * @param value
+	 * @return
+	 */
+	public boolean setCellValue(int x, int y, int value) {
+		if (x < 0 || x >= length || y < 0 || y >= length) {
+			return false;
+		}
+		putValue(x, y, UNSET_VALUE);
+		if (value < 1 || value > length) {
+			return false;
+		}
+		int bit = 1 << value;
+		if (((rowUsed[x] | colUsed[y] | boxUsed[boxOf(x, y)]) & bit) != 0) {
+			return false;
+		}
+		putValue(x, y, value);
+		return true;
+	}
+
+	/**
+	 * 清除(x,y)坐标值
+	 * 
+	 * @param x
+	 * @param y
+	 */
+	public void unsetCellValue(int x, int y) {
+		putValue(x, y, UNSET_VALUE);
+	}
+
+	/**
+	 * 检测单元格(x,y)的值是否合法
+	 * 
+	 * @param x
+	 * @param y
+	 * @return
+	 */
+	public boolean checkCell(int x, int y) {
+		int v = matrix[x][y];
+		if (v < 1 || v > length) {
+			return false;
+		}
+		// 同一行、同一列、同一个小矩阵中只有它自己是v
+		return rowCount[x][v] == 1 && colCount[y][v] == 1 && boxCount[boxOf(x, y)][v] == 1;
+	}
+
+	/**
+	 * 若在单元格(x,y)放置给定值v, 返回与它冲突的位置
+	 * 
+	 * @param x
+	 * @param y
+	 * @param v
+	 * @return
+	 */
+	public Coord findConflictCell(int x, int y, int v) {
+		if (v < 1 || v > length) {
+			throw new IllegalArgumentException("超出范围的参数：" + v + ", 应在[1, " + length + "]之间!");
+		}
+		int self = matrix[x][y] == v ? 1 : 0; // (x,y)自己不算冲突
+		int b = boxOf(x, y);
+		// 计数表明有冲突时，才在相应的域里找出位置
+		if (boxCount[b][v] > self) {
+			int top = x / root * root, left = y - y % root;
+			// 与(x,y)同行或同列的单元格留给下面行、列的查找
+			for (int i = top; i < top + root; i++) {
+				for (int j = left; j < left + root; j++) {
+					if (x != i && y != j && v == matrix[i][j]) {
+						return newCoord(i, j);
+					}
+				}
+			}
+		}
+		if (rowCount[x][v] > self) {
+			for (int j = 0; j < matrix[x].length; j++) {
+				if (y != j && v == matrix[x][j]) {
+					return newCoord(x, j);
+				}
+			}
+		}
+		if (colCount[y][v] > self) {
+			for (int i = 0; i < matrix.length; i++) {
+				if (x != i && v == matrix[i][y]) {
+					return newCoord(i, y);
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * 修改坐标(x,y)的值，同时更新行、列、小矩阵的计数和掩码
+	 * 
+	 * @param x
+	 * @param y
+	 * @param v
+	 *            UNSET_VALUE表示清除
+	 */
+	private void putValue(int x, int y, int v) {
+		int old = matrix[x][y];
+		if (old == v) {
+			return;
+		}
+		int b = boxOf(x, y);
+		if (old != UNSET_VALUE) {
+			if (--rowCount[x][old] == 0) {
+				rowUsed[x] &= ~(1 << old);
+			}
+			if (--colCount[y][old] == 0) {
+				colUsed[y] &= ~(1 << old);
+			}
+			if (--boxCount[b][old] == 0) {
+				boxUsed[b] &= ~(1 << old);
+			}
+			digitCount[old]--;
+			filledCount--;
+		}
+		matrix[x][y] = v;
+		if (v != UNSET_VALUE) {
+			rowCount[x][v]++;
+			colCount[y][v]++;
+			boxCount[b][v]++;
+			rowUsed[x] |= 1 << v;
+			colUsed[y] |= 1 << v;
+			boxUsed[b] |= 1 << v;
+			digitCount[v]++;
+			filledCount++;
+		}
+	}
+
+	/**
+	 * 整个matrix被直接改写后，重新统计计数和掩码
+	 */
+	private void rebuildUnitState() {
+		for (int i = 0; i < length; i++) {
+			Arrays.fill(rowCount[i], 0);
+			Arrays.fill(colCount[i], 0);
+			Arrays.fill(boxCount[i], 0);
+			rowUsed[i] = colUsed[i] = boxUsed[i] = 0;
+		}
+		Arrays.fill(digitCount, 0);
+		filledCount = 0;
+		for (int i = 0; i < length; i++) {
+			for (int j = 0; j < length; j++) {
+				int v = matrix[i][j];
+				matrix[i][j] = UNSET_VALUE;
+				if (v >= 1 && v <= length) {
+					putValue(i, j, v);
+				}
+			}
+		}
+	}
+
+	private static Coord newCoord(int x, int y) {
+		Coord cd = new Coord();
+		cd.x = x;
+		cd.y = y;
+		return cd;
+	}
+
+	private int boxOf(int x, int y) {
+		return x / root * root + y / root;
+	}
+
+	/**
+	 * 由行数推出小矩阵边长
+	 */
+	private static int rootOf(int[][] values) throws IllegalArgumentException {
+		if (values == null) {
+			throw new IllegalArgumentException("初始化数独矩阵的参数错误");
+		}
+		for (int r = MIN_ROOT; r <= MAX_ROOT; r++) {
+			if (r * r == values.length) {
+				return r;
+			}
+		}
+		throw new IllegalArgumentException("不支持的数独矩阵大小：" + values.length);
+	}
+
+	/**
+	 * 紧凑矩阵只能表示9*9
+	 */
+	private void checkGridSize() throws IllegalArgumentException {
+		if (length != SudokuGrid.LENGTH) {
+			throw new IllegalArgumentException("紧凑矩阵只支持" + SudokuGrid.LENGTH + "*" + SudokuGrid.LENGTH);
+		}
+	}
+
+	/**
+	 * 检验矩阵是否是一个合法的矩阵
+	 * 
+	 * @return
+	 */
+	public boolean checkMatrix() {
+		return validator.validate(matrix, true) == GridValidator.VALID;
+	}
+
+	/**
+	 * 检验一个不完全矩阵是否是一个合法的矩阵，如果含有重复数字则不合法
+	 * 
+	 * @return
+	 */
+	public boolean checkUnfullMatrix() {
+		return validator.validate(matrix, false) == GridValidator.VALID;
+	}
+
+	/**
+	 * 校验当前矩阵，不合法时返回出错的域和原因，见{@link GridValidator}
+	 * 
+	 * @param requireFull
+	 *            为true时还要求所有单元格都已填
+	 * @return {@link GridValidator#VALID}或编码后的错误
+	 */
+	public int validateMatrix(boolean requireFull) {
+		return validator.validate(matrix, requireFull);
+	}
+
+	/**
+	 * 使用技巧时{@link CandidateBoard}的回调：删除的可选值逐个转为target的reduceCellCallback，
+	 * target是{@link TechniqueCallback}时再转给它的eliminateCallback。技巧不求出单元格，其他回调不会被调用
+	 */
+	private static class StrategyCallback implements TechniqueCallback {
+		SolveCallback target;
+
+		public void iterateCallback(int itrTimes, boolean isAllSolved, boolean hasAchievement) {
+		}
+
+		public void solveCellCallback(int x, int y, int value) {
+		}
+
+		public void reduceCellCallback(int x, int y, int value) {
+		}
+
+		public void techniqueCallback(int technique) {
+		}
+
+		public void eliminateCallback(int technique, int x, int y, int candidates) {
+			if (target instanceof TechniqueCallback) {
+				((TechniqueCallback) target).eliminateCallback(technique, x, y, candidates);
+			}
+			for (int m = candidates; m != 0; m &= m - 1) {
+				target.reduceCellCallback(x, y, Integer.numberOfTrailingZeros(m));
+			}
+		}
+	}
+}
@@ -0,0 +1,42 @@
+package com.lew.scott.puzzle.sudoku.data;
+
+/**
+ * 求解技巧。每种技巧有一个名称和权重，权重越大越难，也大致是计算的代价，
+ * 评级时按权重从小到大尝试，见{@link DifficultyGrader}
+ */
+public final class Technique {
+
+	public static final int NAKED_SINGLE = 0; // 唯一可选值
+	public static final int HIDDEN_SINGLE = 1; // 某个数字在一个域中只能填在一处
+	public static final int POINTING = 2; // 小矩阵中某个数字只在同一行(列)，从该行(列)的其他单元格删除
+	public static final int CLAIMING = 3; // 一行(列)中某个数字只在同一个小矩阵，从该小矩阵的其他单元格删除
+	public static final int NAKED_PAIR = 4; // 同一域中两个单元格的可选值是同样的两个数字
+	public static final int X_WING = 5; // 某个数字在两行(列)中都只在同样的两列(行)
+	public static final int HIDDEN_PAIR = 6; // 同一域中两个数字都只能填在同样的两个单元格
+	public static final int NAKED_TRIPLE = 7; // 同一域中三个单元格的可选值合起来只有三个数字
+	public static final int HIDDEN_TRIPLE = 8; // 同一域中三个数字都只能填在同样的三个单元格
+	public static final int SEARCH = 9; // 以上技巧都无法继续，只能搜索
+
+	public static final int COUNT = 10;
+
+	private static final String[] NAMES = { "唯一可选值", "隐藏唯一值", "区块摒除", "行列区块摒除", "数对", "X翼", "隐藏数对",
+			"三数组", "隐藏三数组", "搜索" };
+	private static final int[] WEIGHTS = { 10, 15, 26, 28, 30, 32, 34, 36, 40, 100 };
+
+	private Technique() {
+	}
+
+	public static String getName(int technique) {
+		return NAMES[technique];
+	}
+
+	/**
+	 * 技巧的权重
+	 *
+	 * @param technique
+	 * @return
+	 */
+	public static int getWeight(int technique) {
+		return WEIGHTS[technique];
+	}
+}
@@ -0,0 +1,20 @@
+package com.lew.scott.puzzle.sudoku.data;
+
+/**
+ * 按技巧求解时的回调。
+ * 单元格被求解时仍调用{@link #solveCellCallback(int, int, int)}和{@link #reduceCellCallback(int, int, int)}，
+ * 每轮尝试结束时调用{@link #iterateCallback(int, boolean, boolean)}。
+ * 技巧总是在它求出的单元格的回调之后报告，搜索求出的单元格全部回调之后报告一次{@link Technique#SEARCH}，
+ * 见{@link SolveTrace}
+ */
+public interface TechniqueCallback extends SolveCallback {
+	/**
+	 * 一种技巧被成功使用了一次
+	 */
+	public void techniqueCallback(int technique);
+
+	/**
+	 * 技巧从单元格(x,y)的可选值中删除了candidates(掩码，见{@link Candidates})
+	 */
+	public void eliminateCallback(int technique, int x, int y, int candidates);
+}
@@ -0,0 +1,72 @@
+package com.lew.scott.puzzle.sudoku.data;
+
+/**
+ * X翼：某个数字在两行中的可选位置都只在同样的两列，这两列其他行的单元格不能再填这个数字；行列互换同理
+ */
+public class XWingStrategy extends Strategy {
+
+	private final int[] positions; // 每行(列)中可以填该数字的列(行)的掩码
+
+	public XWingStrategy() {
+		super(Technique.X_WING);
+		positions = new int[SudokuMatrix.MAX_LENGTH];
+	}
+
+	@Override
+	public boolean apply(CandidateBoard board) {
+		int length = board.length;
+		for (int v = 1; v <= length; v++) {
+			if (apply(board, v, 0, board.colOf) || apply(board, v, length, board.rowOf)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @param base
+	 *            0按行找，length按列找
+	 * @param crossOf
+	 *            单元格在另一个方向上的序号
+	 */
+	private boolean apply(CandidateBoard board, int v, int base, int[] crossOf) {
+		int length = board.length;
+		int bit = 1 << v;
+		for (int r = 0; r < length; r++) {
+			int[] line = board.units[base + r];
+			int p = 0;
+			for (int k = 0; k < line.length; k++) {
+				if ((board.candidates[line[k]] & bit) != 0) {
+					p |= 1 << crossOf[line[k]];
+				}
+			}
+			positions[r] = p;
+		}
+		int crossBase = length - base; // 另一个方向的域的起始下标
+		for (int r1 = 0; r1 < length; r1++) {
+			int p = positions[r1];
+			if (Integer.bitCount(p) != 2) {
+				continue;
+			}
+			for (int r2 = r1 + 1; r2 < length; r2++) {
+				if (positions[r2] != p) {
+					continue;
+				}
+				boolean achieved = false;
+				for (int m = p; m != 0; m &= m - 1) {
+					int[] cross = board.units[crossBase + Integer.numberOfTrailingZeros(m)];
+					for (int k = 0; k < cross.length; k++) {
+						int line = base == 0 ? board.rowOf[cross[k]] : board.colOf[cross[k]];
+						if (line != r1 && line != r2) {
+							achieved |= board.eliminate(getTechnique(), cross[k], bit);
+						}
+					}
+				}
+				if (achieved) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,248 @@
+package com.lew.scott.puzzle.sudoku.store;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Random;
+
+import com.lew.scott.puzzle.sudoku.data.SudokuGrid;
+import com.lew.scott.puzzle.sudoku.data.SudokuMatrix;
+
+/**
+ * 内存映射的谜题库，按下标随机访问。
+ *
+ * <pre>
+ * 文件头(大端):
+ *   int  MAGIC
+ *   int  VERSION
+ *   int  记录长度(RECORD_SIZE)
+ *   int  难度级别数 L
+ *   long 记录总数
+ *   long 第一条记录的文件偏移
+ *   L个 {long 该难度第一条记录的下标, long 该难度的记录数}
+ * 记录: 1字节难度 + 41字节半字节压缩的矩阵(见{@link SudokuGrid#pack(byte[], int)})
+ * </pre>
+ *
+ * 记录按难度分组连续存放，所以按难度随机取一个谜题只需一次计算。文件按段映射(每段不超过1G)，
+ * 由操作系统按需调入内存，打开时不读取记录。读取只用绝对位置，不改变缓冲区状态，
+ * 同一个PuzzleStore对象可以被多个线程同时使用。文件由{@link PuzzleStoreWriter}生成。
+ */
+public class PuzzleStore implements Closeable {
+
+	public static final int MAGIC = 0x53444B53; // "SDKS"
+	public static final int VERSION = 1;
+	public static final int RECORD_SIZE = 1 + SudokuGrid.PACKED_LENGTH;
+	static final int HEADER_SIZE = 32; // 难度索引之前的部分
+	static final int LEVEL_ENTRY_SIZE = 16;
+
+	private static final long SEGMENT_RECORDS = (1 << 30) / RECORD_SIZE; // 每段映射的记录数
+
+	private final RandomAccessFile file;
+	private final long count;
+	private final long[] levelStart;
+	private final long[] levelCount;
+	private final MappedByteBuffer[] segments;
+
+	private PuzzleStore(RandomAccessFile file) throws IOException {
+		this.file = file;
+		FileChannel channel = file.getChannel();
+		ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), HEADER_SIZE));
+		if (header.limit() < HEADER_SIZE || header.getInt(0) != MAGIC) {
+			throw new IOException("不是谜题库文件");
+		}
+		if (header.getInt(4) != VERSION || header.getInt(8) != RECORD_SIZE) {
+			throw new IOException("不支持的谜题库版本");
+		}
+		int levels = header.getInt(12);
+		count = header.getLong(16);
+		long dataOffset = header.getLong(24);
+		// 文件被截断或损坏时在打开时就报错，而不是以后在get或random中下标越界
+		long size = channel.size();
+		if (levels < 0 || levels > PuzzleStoreWriter.MAX_DIFFICULTY + 1 || count < 0
+				|| dataOffset < HEADER_SIZE + (long) levels * LEVEL_ENTRY_SIZE || dataOffset > size
+				|| count > (size - dataOffset) / RECORD_SIZE) {
+			throw new IOException("谜题库文件已损坏");
+		}
+		ByteBuffer index = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, (long) levels * LEVEL_ENTRY_SIZE);
+		levelStart = new long[levels];
+		levelCount = new long[levels];
+		for (int d = 0; d < levels; d++) {
+			long start = index.getLong(d * LEVEL_ENTRY_SIZE);
+			long n = index.getLong(d * LEVEL_ENTRY_SIZE + 8);
+			if (start < 0 || n < 0 || n > count - start) {// 即start + n <= count，不会溢出
+				throw new IOException("谜题库文件已损坏：难度" + d + "的索引超出范围");
+			}
+			levelStart[d] = start;
+			levelCount[d] = n;
+		}
+		int segmentCount = (int) ((count + SEGMENT_RECORDS - 1) / SEGMENT_RECORDS);
+		segments = new MappedByteBuffer[segmentCount];
+		for (int k = 0; k < segmentCount; k++) {
+			long first = k * SEGMENT_RECORDS;
+			long records = Math.min(SEGMENT_RECORDS, count - first);
+			segments[k] = channel.map(FileChannel.MapMode.READ_ONLY, dataOffset + first * RECORD_SIZE,
+					records * RECORD_SIZE);
+		}
+	}
+
+	/**
+	 * 打开谜题库文件
+	 *
+	 * @param path
+	 * @return
+	 * @throws IOException
+	 */
+	public static PuzzleStore open(File path) throws IOException {
+		RandomAccessFile file = new RandomAccessFile(path, "r");
+		try {
+			return new PuzzleStore(file);
+		} catch (IOException e) {
+			file.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * 记录总数
+	 *
+	 * @return
+	 */
+	public long size() {
+		return count;
+	}
+
+	/**
+	 * 难度级别数，难度为[0, getLevelCount())
+	 *
+	 * @return
+	 */
+	public int getLevelCount() {
+		return levelStart.length;
+	}
+
+	/**
+	 * 难度为difficulty的记录数
+	 *
+	 * @param difficulty
+	 * @return
+	 */
+	public long count(int difficulty) {
+		return difficulty < 0 || difficulty >= levelCount.length ? 0 : levelCount[difficulty];
+	}
+
+	/**
+	 * 难度为difficulty的第一条记录的下标，同一难度的记录下标连续
+	 *
+	 * @param difficulty
+	 * @return
+	 */
+	public long start(int difficulty) {
+		return levelStart[difficulty];
+	}
+
+	/**
+	 * 第index条记录的难度
+	 *
+	 * @param index
+	 * @return
+	 */
+	public int getDifficulty(long index) {
+		checkIndex(index);
+		return segments[(int) (index / SEGMENT_RECORDS)].get(position(index)) & 0xFF;
+	}
+
+	/**
+	 * 把第index条记录解码到dst
+	 *
+	 * @param index
+	 * @param dst
+	 * @return dst
+	 * @throws IllegalStateException
+	 *             记录中有大于9的数字，这时dst不变
+	 */
+	public SudokuGrid get(long index, SudokuGrid dst) {
+		checkIndex(index);
+		MappedByteBuffer segment = segments[(int) (index / SEGMENT_RECORDS)];
+		int pos = position(index) + 1;
+		for (int i = 0; i < SudokuGrid.CELL_COUNT; i += 2) {
+			int b = segment.get(pos + (i >> 1));
+			if (((b >> 4) & 0xF) > SudokuGrid.LENGTH || (i + 1 < SudokuGrid.CELL_COUNT && (b & 0xF) > SudokuGrid.LENGTH)) {
+				throw new IllegalStateException("谜题库文件已损坏：第" + index + "条记录中有超出范围的数字");
+			}
+		}
+		for (int i = 0; i < SudokuGrid.CELL_COUNT; i += 2) {
+			int b = segment.get(pos + (i >> 1));
+			dst.set(i, (b >> 4) & 0xF);
+			if (i + 1 < SudokuGrid.CELL_COUNT) {
+				dst.set(i + 1, b & 0xF);
+			}
+		}
+		return dst;
+	}
+
+	public SudokuGrid get(long index) {
+		return get(index, new SudokuGrid());
+	}
+
+	/**
+	 * 用第index条记录初始化matrix
+	 *
+	 * @param index
+	 * @param matrix
+	 */
+	public void load(long index, SudokuMatrix matrix) {
+		matrix.initMatrix(get(index));
+	}
+
+	/**
+	 * 随机取一条难度为difficulty的记录解码到dst
+	 *
+	 * @param difficulty
+	 * @param random
+	 * @param dst
+	 * @return 记录的下标，该难度没有记录时返回-1
+	 */
+	public long random(int difficulty, Random random, SudokuGrid dst) {
+		long n = count(difficulty);
+		if (n == 0) {
+			return -1;
+		}
+		long index = levelStart[difficulty] + nextLong(random, n);
+		get(index, dst);
+		return index;
+	}
+
+	@Override
+	public void close() throws IOException {
+		// 映射的缓冲区在被回收时才释放，这里只关闭文件
+		file.close();
+	}
+
+	private void checkIndex(long index) {
+		if (index < 0 || index >= count) {
+			throw new IndexOutOfBoundsException("下标超出范围：" + index);
+		}
+	}
+
+	private static int position(long index) {
+		return (int) (index % SEGMENT_RECORDS) * RECORD_SIZE;
+	}
+
+	/**
+	 * [0, bound)之间均匀分布的随机数
+	 */
+	private static long nextLong(Random random, long bound) {
+		if (bound <= Integer.MAX_VALUE) {
+			return random.nextInt((int) bound);
+		}
+		long r;
+		do {
+			r = random.nextLong() >>> 1;
+		} while (r - r % bound + (bound - 1) < 0);
+		return r % bound;
+	}
+}
@@ -0,0 +1,184 @@
+package com.lew.scott.puzzle.sudoku.store;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import com.lew.scott.puzzle.sudoku.data.SudokuGrid;
+
+/**
+ * 生成{@link PuzzleStore}文件。
+ *
+ * 谜题可以按任意难度顺序添加：每个难度先写到输出文件旁边的一个临时文件，
+ * close时写文件头和难度索引，再按难度顺序把临时文件拼接到输出文件并删除。
+ * 出错时调用{@link #abort()}删除临时文件和不完整的输出文件。不是线程安全的。
+ */
+public class PuzzleStoreWriter implements Closeable {
+
+	public static final int MAX_DIFFICULTY = 255;
+
+	private final File output;
+	private final OutputStream[] levelOut = new OutputStream[MAX_DIFFICULTY + 1];
+	private final File[] levelFile = new File[MAX_DIFFICULTY + 1];
+	private final long[] levelCount = new long[MAX_DIFFICULTY + 1];
+	private final byte[] record = new byte[PuzzleStore.RECORD_SIZE];
+	private final SudokuGrid scratch = new SudokuGrid();
+	private int levels; // 用到的最大难度+1
+	private boolean closed;
+	private boolean outputOpened; // 已开始写输出文件
+	private boolean completed; // 输出文件已完整生成
+
+	public PuzzleStoreWriter(File output) {
+		this.output = output;
+	}
+
+	/**
+	 * 添加一个谜题
+	 *
+	 * @param grid
+	 * @param difficulty
+	 *            [0, MAX_DIFFICULTY]
+	 * @throws IOException
+	 */
+	public void add(SudokuGrid grid, int difficulty) throws IOException {
+		if (difficulty < 0 || difficulty > MAX_DIFFICULTY) {
+			throw new IllegalArgumentException("超出范围的难度：" + difficulty);
+		}
+		if (closed) {
+			throw new IOException("已经关闭");
+		}
+		OutputStream out = levelOut[difficulty];
+		if (out == null) {
+			File tmp = File.createTempFile("level" + difficulty + "-", ".tmp", output.getAbsoluteFile().getParentFile());
+			levelFile[difficulty] = tmp;
+			levelOut[difficulty] = out = new BufferedOutputStream(new FileOutputStream(tmp), 1 << 16);
+		}
+		record[0] = (byte) difficulty;
+		grid.pack(record, 1);
+		out.write(record);
+		levelCount[difficulty]++;
+		if (difficulty >= levels) {
+			levels = difficulty + 1;
+		}
+	}
+
+	/**
+	 * 添加一个按行展开的谜题
+	 *
+	 * @param grid
+	 * @param difficulty
+	 * @throws IOException
+	 */
+	public void add(int[] grid, int difficulty) throws IOException {
+		scratch.fromInts(grid);
+		add(scratch, difficulty);
+	}
+
+	/**
+	 * 已添加的谜题数
+	 *
+	 * @return
+	 */
+	public long size() {
+		long n = 0;
+		for (int d = 0; d < levels; d++) {
+			n += levelCount[d];
+		}
+		return n;
+	}
+
+	/**
+	 * 生成输出文件并删除临时文件
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			// 第一次写入就失败的难度不在levels之内，也要关闭
+			for (int d = 0; d <= MAX_DIFFICULTY; d++) {
+				if (levelOut[d] != null) {
+					levelOut[d].close();
+				}
+			}
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(output), 1 << 16));
+			outputOpened = true;
+			try {
+				long dataOffset = PuzzleStore.HEADER_SIZE + (long) levels * PuzzleStore.LEVEL_ENTRY_SIZE;
+				out.writeInt(PuzzleStore.MAGIC);
+				out.writeInt(PuzzleStore.VERSION);
+				out.writeInt(PuzzleStore.RECORD_SIZE);
+				out.writeInt(levels);
+				out.writeLong(size());
+				out.writeLong(dataOffset);
+				long start = 0;
+				for (int d = 0; d < levels; d++) {
+					out.writeLong(start);
+					out.writeLong(levelCount[d]);
+					start += levelCount[d];
+				}
+				byte[] buf = new byte[1 << 16];
+				for (int d = 0; d < levels; d++) {
+					if (levelFile[d] == null) {
+						continue;
+					}
+					InputStream in = new BufferedInputStream(new FileInputStream(levelFile[d]));
+					try {
+						int n;
+						while ((n = in.read(buf)) > 0) {
+							out.write(buf, 0, n);
+						}
+					} finally {
+						in.close();
+					}
+				}
+			} finally {
+				out.close();
+			}
+			completed = true;
+		} finally {
+			deleteLevelFiles();
+		}
+	}
+
+	/**
+	 * 放弃生成：关闭并删除临时文件，删除不完整的输出文件。已经成功close时什么也不做
+	 */
+	public void abort() {
+		if (completed) {
+			return;
+		}
+		closed = true;
+		for (int d = 0; d <= MAX_DIFFICULTY; d++) {
+			if (levelOut[d] != null) {
+				try {
+					levelOut[d].close();
+				} catch (IOException e) {
+					// 临时文件马上删除，忽略
+				}
+			}
+		}
+		deleteLevelFiles();
+		if (outputOpened) {// close失败时输出文件只写了一部分
+			output.delete();
+		}
+	}
+
+	private void deleteLevelFiles() {
+		for (int d = 0; d <= MAX_DIFFICULTY; d++) {
+			if (levelFile[d] != null) {
+				levelFile[d].delete();
+				levelFile[d] = null;
+			}
+		}
+	}
+}
@@ -0,0 +1,131 @@
+package com.lew.scott.puzzle.sudoku.data;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * 校验结果的编码和修正
+ */
+public class GridValidatorTest {
+
+	private final GridValidator validator = new GridValidator();
+
+	@Test
+	public void valid() {
+		assertEquals(GridValidator.VALID, validator.validate(Grids.flat(Grids.SOLUTION), true));
+		assertEquals(GridValidator.VALID, validator.validate(Grids.flat(Grids.PUZZLE), false));
+		assertEquals(GridValidator.VALID, validator.validate(Grids.matrix(Grids.SOLUTION), true));
+	}
+
+	@Test
+	public void duplicateInRow() {
+		int[] grid = Grids.flat(Grids.EMPTY);
+		grid[2] = 5;
+		grid[7] = 5;
+		int code = validator.validate(grid, false);
+		assertEquals(GridValidator.REASON_DUPLICATE, GridValidator.reasonOf(code));
+		assertEquals(GridValidator.UNIT_ROW, GridValidator.unitOf(code));
+		assertEquals(0, GridValidator.unitIndexOf(code));
+		assertEquals(7, GridValidator.cellOf(code));
+		assertEquals(5, GridValidator.digitOf(code));
+	}
+
+	@Test
+	public void duplicateInColumn() {
+		int[] grid = Grids.flat(Grids.EMPTY);
+		grid[1 * 9 + 4] = 3;
+		grid[6 * 9 + 4] = 3;
+		int code = validator.validate(grid, false);
+		assertEquals(GridValidator.REASON_DUPLICATE, GridValidator.reasonOf(code));
+		assertEquals(GridValidator.UNIT_COL, GridValidator.unitOf(code));
+		assertEquals(4, GridValidator.unitIndexOf(code));
+		assertEquals(6 * 9 + 4, GridValidator.cellOf(code));
+		assertEquals(3, GridValidator.digitOf(code));
+	}
+
+	@Test
+	public void duplicateInBox() {
+		int[] grid = Grids.flat(Grids.EMPTY);
+		grid[3 * 9 + 6] = 9;
+		grid[5 * 9 + 8] = 9;
+		int code = validator.validate(grid, false);
+		assertEquals(GridValidator.REASON_DUPLICATE, GridValidator.reasonOf(code));
+		assertEquals(GridValidator.UNIT_BOX, GridValidator.unitOf(code));
+		assertEquals(5, GridValidator.unitIndexOf(code));
+		assertEquals(5 * 9 + 8, GridValidator.cellOf(code));
+		assertEquals(9, GridValidator.digitOf(code));
+	}
+
+	@Test
+	public void emptyCellWhenFullRequired() {
+		int[] grid = Grids.flat(Grids.SOLUTION);
+		grid[40] = SudokuMatrix.UNSET_VALUE;
+		assertEquals(GridValidator.VALID, validator.validate(grid, false));
+		int code = validator.validate(grid, true);
+		assertEquals(GridValidator.REASON_EMPTY, GridValidator.reasonOf(code));
+		assertEquals(4, GridValidator.unitIndexOf(code));
+		assertEquals(40, GridValidator.cellOf(code));
+	}
+
+	@Test
+	public void outOfRange() {
+		int[] grid = Grids.flat(Grids.EMPTY);
+		grid[10] = 10;
+		int code = validator.validate(grid, false);
+		assertEquals(GridValidator.REASON_OUT_OF_RANGE, GridValidator.reasonOf(code));
+		assertEquals(10, GridValidator.cellOf(code));
+		assertEquals(10, GridValidator.digitOf(code));
+	}
+
+	@Test
+	public void badSize() {
+		assertEquals(GridValidator.REASON_BAD_SIZE, GridValidator.reasonOf(validator.validate(new int[80], false)));
+		assertEquals(GridValidator.REASON_BAD_SIZE, GridValidator.reasonOf(validator.validate((int[]) null, false)));
+		assertEquals(GridValidator.REASON_BAD_SIZE,
+				GridValidator.reasonOf(validator.validate(new int[9][8], false)));
+		assertEquals(GridValidator.REASON_BAD_SIZE,
+				GridValidator.reasonOf(new GridValidator(2).validate(Grids.flat(Grids.SOLUTION), true)));
+	}
+
+	@Test
+	public void amendClearsRowsThenColumnsThenBoxes() {
+		int[][] m = Grids.matrix(Grids.EMPTY);
+		m[0][0] = 1;
+		m[0][5] = 1; // 与(0,0)同行，按行清除
+		m[4][0] = 1; // 与(0,0)同列，按列清除
+		m[1][1] = 1; // 与(0,0)同一小矩阵，按小矩阵清除
+		m[8][8] = 12; // 超出范围
+		assertEquals(4, validator.amend(m));
+		assertEquals(1, m[0][0]);
+		assertEquals(SudokuMatrix.UNSET_VALUE, m[0][5]);
+		assertEquals(SudokuMatrix.UNSET_VALUE, m[4][0]);
+		assertEquals(SudokuMatrix.UNSET_VALUE, m[1][1]);
+		assertEquals(SudokuMatrix.UNSET_VALUE, m[8][8]);
+		assertEquals(GridValidator.VALID, validator.validate(m, false));
+	}
+
+	@Test
+	public void amendKeepsCellsThatOnlyConflictWithClearedOnes() {
+		int[][] m = Grids.matrix(Grids.EMPTY);
+		m[0][0] = 2;
+		m[0][3] = 2; // 行扫描时被清除
+		m[5][3] = 2; // 只与已清除的(0,3)同列，保留
+		assertEquals(1, validator.amend(m));
+		assertEquals(2, m[0][0]);
+		assertEquals(SudokuMatrix.UNSET_VALUE, m[0][3]);
+		assertEquals(2, m[5][3]);
+	}
+
+	@Test
+	public void amendScansAllRowsBeforeColumns() {
+		int[][] m = Grids.matrix(Grids.EMPTY);
+		m[0][3] = 2;
+		m[1][3] = 2; // 与(0,3)同列
+		m[1][6] = 2; // 与(1,3)同行，行扫描时先被清除
+		assertEquals(2, validator.amend(m));
+		assertEquals(2, m[0][3]);
+		assertEquals(SudokuMatrix.UNSET_VALUE, m[1][3]);
+		assertEquals(SudokuMatrix.UNSET_VALUE, m[1][6]);
+	}
+}
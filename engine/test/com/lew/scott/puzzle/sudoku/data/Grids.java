@@ -0,0 +1,53 @@
+package com.lew.scott.puzzle.sudoku.data;
+
+/**
+ * 测试用的谜题和转换方法
+ */
+final class Grids {
+
+	// 有唯一解的谜题及其解
+	static final String PUZZLE = "53..7....6..195....98....6.8...6...34..8.3..17...2...6.6....28....419..5....8..79";
+	static final String SOLUTION = "534678912672195348198342567859761423426853791713924856961537284287419635345286179";
+
+	// 没有冲突但无解：第0行只能在(0,8)填9，而第8列已经有9
+	static final String UNSOLVABLE = "12345678." + "........." + "........." + "........." + "........9"
+			+ "........." + "........." + "........." + ".........";
+
+	static final String EMPTY = ".................................................................................";
+
+	private Grids() {
+	}
+
+	/**
+	 * 81字符一行的文本转为按行展开的数组
+	 */
+	static int[] flat(String text) {
+		int[] values = new int[text.length()];
+		for (int i = 0; i < values.length; i++) {
+			char c = text.charAt(i);
+			values[i] = c == '.' ? SudokuMatrix.UNSET_VALUE : c - '0';
+		}
+		return values;
+	}
+
+	static int[][] matrix(String text) {
+		return matrix(flat(text), SudokuMatrix.SQUARE_LENGTH);
+	}
+
+	static int[][] matrix(int[] values, int length) {
+		int[][] m = new int[length][length];
+		for (int i = 0; i < length; i++) {
+			System.arraycopy(values, i * length, m[i], 0, length);
+		}
+		return m;
+	}
+
+	static int[] flat(int[][] matrix) {
+		int length = matrix.length;
+		int[] values = new int[length * length];
+		for (int i = 0; i < length; i++) {
+			System.arraycopy(matrix[i], 0, values, i * length, length);
+		}
+		return values;
+	}
+}
@@ -0,0 +1,147 @@
+package com.lew.scott.puzzle.sudoku.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+
+/**
+ * 求解记录的写出、读入和校验
+ */
+public class SolveTraceTest {
+
+	@Test
+	public void writeReadRoundTrip() throws IOException {
+		SudokuMatrix m = new SudokuMatrix(Grids.matrix(Grids.PUZZLE));
+		SolveTrace trace = new SolveTrace();
+		assertTrue(m.solve(trace));
+		assertTrue(trace.size() > 0);
+
+		SolveTrace back = new SolveTrace(1);
+		back.read(input(toBytes(trace)));
+		assertEquals(trace.size(), back.size());
+		assertEquals(trace.getIterationCount(), back.getIterationCount());
+		for (int i = 0; i < trace.size(); i++) {
+			assertEquals(trace.getType(i), back.getType(i));
+			assertEquals(trace.getTechnique(i), back.getTechnique(i));
+			assertEquals(trace.getArgument(i), back.getArgument(i));
+			assertEquals(trace.getIteration(i), back.getIteration(i));
+		}
+
+		// 按记录填入求解的数字，得到的就是解
+		int[] values = Grids.flat(Grids.PUZZLE);
+		for (int i = 0; i < back.size(); i++) {
+			if (back.getType(i) == SolveTrace.EVENT_SOLVE) {
+				values[back.getX(i) * 9 + back.getY(i)] = back.getValue(i);
+			}
+		}
+		assertArrayEquals(Grids.flat(Grids.SOLUTION), values);
+	}
+
+	@Test
+	public void strategyEliminationsAreReportedAsReductions() {
+		// 唯一值推理中途卡住，要用技巧删除可选值，不需要搜索
+		String puzzle = "...4.579.......36..7.6......6591..84.91...........6....4.28.6..2...9..3.9........";
+		final int[][] clues = Grids.matrix(puzzle);
+
+		// 普通的SolveCallback也收到删除的可选值
+		final boolean[] solved = new boolean[81];
+		final int[] eliminated = new int[1];
+		SudokuMatrix m = new SudokuMatrix(Grids.matrix(puzzle));
+		assertTrue(m.solve(new SolveCallback() {
+			public void iterateCallback(int itrTimes, boolean isAllSolved, boolean hasAchievement) {
+			}
+
+			public void solveCellCallback(int x, int y, int value) {
+				solved[x * 9 + y] = true;
+			}
+
+			public void reduceCellCallback(int x, int y, int value) {
+				if (!solved[x * 9 + y] && clues[x][y] == SudokuMatrix.UNSET_VALUE) {
+					eliminated[0]++;
+				}
+			}
+		}));
+		assertTrue(eliminated[0] > 0);
+
+		// 记录中每个EVENT_ELIMINATE后面紧跟着逐个数字的EVENT_REDUCE，技巧相同，删除的都不是解
+		m = new SudokuMatrix(Grids.matrix(puzzle));
+		SolveTrace trace = new SolveTrace();
+		assertTrue(m.solve(trace));
+		int[][] result = m.getMatrix();
+		int reductions = 0;
+		for (int i = 0; i < trace.size(); i++) {
+			if (trace.getType(i) != SolveTrace.EVENT_ELIMINATE) {
+				continue;
+			}
+			int mask = trace.getArgument(i);
+			for (int k = 1; k <= Integer.bitCount(mask); k++) {
+				int r = i + k;
+				assertEquals(SolveTrace.EVENT_REDUCE, trace.getType(r));
+				assertEquals(trace.getX(i), trace.getX(r));
+				assertEquals(trace.getY(i), trace.getY(r));
+				assertTrue((mask & 1 << trace.getValue(r)) != 0);
+				assertTrue(trace.getValue(r) != result[trace.getX(r)][trace.getY(r)]);
+				assertEquals(trace.getTechnique(i), trace.getTechnique(r));
+				reductions++;
+			}
+		}
+		assertEquals(eliminated[0], reductions);
+	}
+
+	@Test
+	public void readRejectsUnknownEventType() throws IOException {
+		SolveTrace trace = new SolveTrace();
+		trace.iterateCallback(1, false, true);
+		trace.solveCellCallback(0, 2, 4);
+		byte[] data = toBytes(trace);
+		// 第1个事件的类型改为0
+		data[8 + 12 + 3] &= ~7;
+		SolveTrace back = new SolveTrace();
+		back.solveCellCallback(1, 1, 1);
+		assertReadFails(back, data);
+		assertEquals(0, back.size());
+	}
+
+	@Test
+	public void readRejectsBadEventCount() throws IOException {
+		assertReadFails(new SolveTrace(), header(-1, 0));
+		assertReadFails(new SolveTrace(), header(Integer.MAX_VALUE / 3 + 1, 0));
+		assertReadFails(new SolveTrace(), header(1, -1));
+	}
+
+	private static byte[] toBytes(SolveTrace trace) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		trace.write(new DataOutputStream(bytes));
+		return bytes.toByteArray();
+	}
+
+	private static byte[] header(int events, int iterations) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(events);
+		out.writeInt(iterations);
+		return bytes.toByteArray();
+	}
+
+	private static DataInputStream input(byte[] data) {
+		return new DataInputStream(new ByteArrayInputStream(data));
+	}
+
+	private static void assertReadFails(SolveTrace trace, byte[] data) {
+		try {
+			trace.read(input(data));
+			fail("损坏的求解记录应该在读入时报错");
+		} catch (IOException e) {
+			// 预期
+		}
+	}
+}
@@ -0,0 +1,76 @@
+package com.lew.scott.puzzle.sudoku.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * 舞蹈链求解器和回溯求解器对同样的谜题给出同样的结果
+ */
+public class SolverEngineTest {
+
+	@Test
+	public void knownPuzzles() {
+		DancingLinksSolver dlx = new DancingLinksSolver();
+		BacktrackSolver backtrack = new BacktrackSolver();
+		int[] a = Grids.flat(Grids.PUZZLE), b = Grids.flat(Grids.PUZZLE);
+		assertTrue(dlx.solve(a));
+		assertTrue(backtrack.solve(b));
+		assertArrayEquals(Grids.flat(Grids.SOLUTION), a);
+		assertArrayEquals(a, b);
+
+		assertFalse(dlx.solve(Grids.flat(Grids.UNSOLVABLE)));
+		assertFalse(backtrack.solve(Grids.flat(Grids.UNSOLVABLE)));
+		assertEquals(0, dlx.countSolutions(Grids.flat(Grids.UNSOLVABLE), 2));
+		assertEquals(0, backtrack.countSolutions(Grids.flat(Grids.UNSOLVABLE), 2));
+		assertEquals(10, dlx.countSolutions(Grids.flat(Grids.EMPTY), 10));
+		assertEquals(10, backtrack.countSolutions(Grids.flat(Grids.EMPTY), 10));
+	}
+
+	@Test
+	public void sameSolutionCountsOnGeneratedPuzzles() {
+		for (int root = SudokuMatrix.MIN_ROOT; root <= SudokuMatrix.SQUARE_ROOT; root++) {
+			SudokuMatrix generator = new SudokuMatrix(root, new Random(42));
+			DancingLinksSolver dlx = new DancingLinksSolver(root);
+			BacktrackSolver backtrack = new BacktrackSolver(root);
+			for (int k = 0; k < 50; k++) {
+				generator.setDegreeOfPuzzle(1 + k % 8); // 挖得越多，越可能有多个解
+				int[] puzzle = Grids.flat(generator.generatePuzzle());
+				int expected = backtrack.countSolutions(puzzle, 20);
+				assertEquals(expected, dlx.countSolutions(puzzle, 20));
+				assertTrue(expected > 0); // 从合法矩阵挖出来的谜题至少有一个解
+				if (expected == 1) {
+					int[] a = puzzle.clone(), b = puzzle.clone();
+					assertTrue(dlx.solve(a));
+					assertTrue(backtrack.solve(b));
+					assertArrayEquals(a, b);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void bothSolveLargerGrids() {
+		int root = 4;
+		SudokuMatrix generator = new SudokuMatrix(root, new Random(7));
+		GridValidator validator = new GridValidator(root);
+		for (int k = 0; k < 5; k++) {
+			int[][] answer = generator.generateValidMatrix();
+			int[] puzzle = Grids.flat(answer);
+			Random random = new Random(k);
+			for (int n = 0; n < puzzle.length / 2; n++) {
+				puzzle[random.nextInt(puzzle.length)] = SudokuMatrix.UNSET_VALUE;
+			}
+			int[] a = puzzle.clone(), b = puzzle.clone();
+			assertTrue(new DancingLinksSolver(root).solve(a));
+			assertTrue(new BacktrackSolver(root).solve(b));
+			assertEquals(GridValidator.VALID, validator.validate(a, true));
+			assertEquals(GridValidator.VALID, validator.validate(b, true));
+		}
+	}
+}
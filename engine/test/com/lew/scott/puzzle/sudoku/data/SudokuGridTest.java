@@ -0,0 +1,105 @@
+package com.lew.scott.puzzle.sudoku.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+/**
+ * 紧凑矩阵的文本、压缩格式和视图
+ */
+public class SudokuGridTest {
+
+	@Test
+	public void parseAndToString() {
+		SudokuGrid g = SudokuGrid.parse(Grids.PUZZLE);
+		assertEquals(Grids.PUZZLE, g.toString());
+		assertEquals(5, g.get(0, 0));
+		assertEquals(SudokuMatrix.UNSET_VALUE, g.get(0, 2));
+		// '0'也是空白，第81个字符之后的内容忽略
+		assertEquals(g, SudokuGrid.parse(Grids.PUZZLE.replace('.', '0') + " # comment"));
+	}
+
+	@Test
+	public void parseRejectsBadText() {
+		try {
+			SudokuGrid.parse(Grids.PUZZLE.substring(1));
+			fail();
+		} catch (IllegalArgumentException e) {
+			// 长度不足
+		}
+		try {
+			SudokuGrid.parse("x" + Grids.PUZZLE.substring(1));
+			fail();
+		} catch (IllegalArgumentException e) {
+			// 非法字符
+		}
+	}
+
+	@Test
+	public void packUnpackRoundTrip() {
+		for (String text : new String[] { Grids.PUZZLE, Grids.SOLUTION, Grids.EMPTY }) {
+			SudokuGrid g = SudokuGrid.parse(text);
+			byte[] packed = g.pack();
+			assertEquals(SudokuGrid.PACKED_LENGTH, packed.length);
+			assertEquals(g, SudokuGrid.unpack(packed, 0));
+
+			byte[] buf = new byte[3 + SudokuGrid.PACKED_LENGTH];
+			g.pack(buf, 3);
+			assertEquals(text, SudokuGrid.unpack(buf, 3).toString());
+		}
+	}
+
+	@Test
+	public void encodeDecodeRoundTrip() {
+		SudokuGrid g = SudokuGrid.parse(Grids.PUZZLE);
+		byte[] text = new byte[SudokuGrid.CELL_COUNT + 1];
+		g.encode(text, 1);
+		SudokuGrid d = new SudokuGrid();
+		d.decode(text, 1);
+		assertEquals(g, d);
+	}
+
+	@Test
+	public void decodeLeavesGridUnchangedOnError() {
+		byte[] text = new byte[SudokuGrid.CELL_COUNT];
+		SudokuGrid.parse(Grids.SOLUTION).encode(text, 0);
+		text[80] = 'x';
+		SudokuGrid g = SudokuGrid.parse(Grids.PUZZLE);
+		try {
+			g.decode(text, 0);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// 最后一个字符非法
+		}
+		assertEquals(Grids.PUZZLE, g.toString());
+	}
+
+	@Test
+	public void unpackRejectsDigitsAboveNine() {
+		byte[] packed = SudokuGrid.parse(Grids.SOLUTION).pack();
+		packed[20] = (byte) 0x5A;
+		byte[] dst = new byte[SudokuGrid.CELL_COUNT];
+		try {
+			SudokuGrid.unpack(packed, 0, dst, 0);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// 低4位是10
+		}
+		assertArrayEquals(new byte[SudokuGrid.CELL_COUNT], dst);
+	}
+
+	@Test
+	public void intsRoundTripAndViews() {
+		int[] values = Grids.flat(Grids.SOLUTION);
+		byte[] data = new byte[2 * SudokuGrid.CELL_COUNT];
+		SudokuGrid view = new SudokuGrid(data, SudokuGrid.CELL_COUNT);
+		view.fromInts(values);
+		assertEquals(Grids.SOLUTION, view.toString());
+		assertEquals(values[0], data[SudokuGrid.CELL_COUNT]); // 直接写入包装的数组
+		int[] back = new int[SudokuGrid.CELL_COUNT];
+		view.copy().toInts(back);
+		assertArrayEquals(values, back);
+	}
+}
@@ -0,0 +1,149 @@
+package com.lew.scott.puzzle.sudoku.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * 求解、解的计数和唯一解谜题的生成
+ */
+public class SudokuMatrixTest {
+
+	private static final int[] ENGINES = { SudokuMatrix.ENGINE_PROPAGATION, SudokuMatrix.ENGINE_DANCING_LINKS };
+
+	@Test
+	public void solveKnownPuzzle() {
+		for (int engine : ENGINES) {
+			SudokuMatrix m = new SudokuMatrix(Grids.matrix(Grids.PUZZLE));
+			m.setSolverEngine(engine);
+			assertTrue(m.solve());
+			assertArrayEquals(Grids.matrix(Grids.SOLUTION), m.getMatrix());
+			assertTrue(m.checkMatrix());
+		}
+	}
+
+	@Test
+	public void solveUnsolvablePuzzle() {
+		for (int engine : ENGINES) {
+			SudokuMatrix m = new SudokuMatrix(Grids.matrix(Grids.UNSOLVABLE));
+			m.setSolverEngine(engine);
+			assertFalse(m.solve());
+		}
+	}
+
+	@Test
+	public void solveGridLeavesUnsolvableUntouched() {
+		for (int engine : ENGINES) {
+			SudokuMatrix m = new SudokuMatrix();
+			m.setSolverEngine(engine);
+			int[] values = Grids.flat(Grids.PUZZLE);
+			assertTrue(m.solveGrid(values));
+			assertArrayEquals(Grids.flat(Grids.SOLUTION), values);
+			values = Grids.flat(Grids.UNSOLVABLE);
+			assertFalse(m.solveGrid(values));
+			assertArrayEquals(Grids.flat(Grids.UNSOLVABLE), values);
+		}
+	}
+
+	@Test
+	public void countSolutions() {
+		for (int engine : ENGINES) {
+			SudokuMatrix m = new SudokuMatrix(Grids.matrix(Grids.PUZZLE));
+			m.setSolverEngine(engine);
+			assertEquals(1, m.countSolutions(2));
+			assertTrue(m.hasUniqueSolution());
+
+			m.initMatrix(Grids.matrix(Grids.UNSOLVABLE));
+			assertEquals(0, m.countSolutions(2));
+			assertFalse(m.hasUniqueSolution());
+
+			m.initMatrix(Grids.matrix(Grids.EMPTY));
+			assertEquals(5, m.countSolutions(5));
+			assertFalse(m.hasUniqueSolution());
+		}
+	}
+
+	@Test
+	public void generateUniquePuzzleIsReproducible() {
+		for (long seed = 1; seed <= 5; seed++) {
+			SudokuMatrix a = new SudokuMatrix(SudokuMatrix.SQUARE_ROOT, new Random(seed));
+			SudokuMatrix b = new SudokuMatrix(SudokuMatrix.SQUARE_ROOT, new Random(seed));
+			assertArrayEquals(a.generateUniquePuzzle(24, true), b.generateUniquePuzzle(24, true));
+			assertArrayEquals(a.getAnswerMatrix(), b.getAnswerMatrix());
+			// 同一个对象重新设定种子后也重现
+			a.setSeed(seed);
+			b.setSeed(seed);
+			assertArrayEquals(a.generateUniquePuzzle(30, false), b.generateUniquePuzzle(30, false));
+		}
+	}
+
+	@Test
+	public void generatedPuzzlesHaveUniqueSolution() {
+		SudokuMatrix m = new SudokuMatrix(SudokuMatrix.SQUARE_ROOT, new Random(20240101L));
+		for (int k = 0; k < 30; k++) {
+			int[][] puzzle = m.generateUniquePuzzle(24, k % 2 == 0);
+			int[][] answer = m.getAnswerMatrix();
+			assertTrue(m.checkUnfullMatrix());
+			assertTrue(m.hasUniqueSolution());
+			// 谜题的数字都来自答案，求出的解就是答案
+			int[] values = Grids.flat(puzzle);
+			for (int i = 0; i < values.length; i++) {
+				assertTrue(values[i] == SudokuMatrix.UNSET_VALUE || values[i] == answer[i / 9][i % 9]);
+			}
+			assertTrue(m.solveGrid(values));
+			assertArrayEquals(Grids.flat(answer), values);
+		}
+	}
+
+	@Test
+	public void generateValidMatrixForAllSizes() {
+		for (int root = SudokuMatrix.MIN_ROOT; root <= SudokuMatrix.MAX_ROOT; root++) {
+			SudokuMatrix m = new SudokuMatrix(root, new Random(root));
+			GridValidator validator = new GridValidator(root);
+			// 变换规范矩阵，以及25*25之外的随机填充
+			for (boolean permutation : root < SudokuMatrix.MAX_ROOT ? new boolean[] { true, false }
+					: new boolean[] { true }) {
+				m.setPermutationFill(permutation);
+				for (int k = 0; k < 20; k++) {
+					int[][] grid = m.generateValidMatrix();
+					assertEquals(root * root, grid.length);
+					assertTrue(m.checkMatrix());
+					assertEquals(GridValidator.VALID, validator.validate(Grids.flat(grid), true));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void permutationFillIsReproducibleAndVaried() {
+		SudokuMatrix a = new SudokuMatrix(SudokuMatrix.SQUARE_ROOT, new Random(9));
+		SudokuMatrix b = new SudokuMatrix(SudokuMatrix.SQUARE_ROOT, new Random(9));
+		int[][] first = a.generateValidMatrix();
+		assertArrayEquals(first, b.generateValidMatrix());
+		int[][] second = a.generateValidMatrix();
+		assertArrayEquals(second, b.generateValidMatrix());
+		assertFalse(Arrays.deepEquals(first, second));
+	}
+
+	@Test
+	public void findConflictCell() {
+		int[][] values = Grids.matrix(Grids.EMPTY);
+		values[1][0] = 5; // 与(0,0)同一小矩阵、同一列
+		values[0][7] = 5; // 与(0,0)同一行
+		SudokuMatrix m = new SudokuMatrix(values);
+		Coord cd = m.findConflictCell(0, 0, 5);
+		assertNotNull(cd);
+		// 小矩阵中同行、同列的单元格留给行、列的查找，先查行
+		assertEquals(0, cd.x);
+		assertEquals(7, cd.y);
+		assertNull(m.findConflictCell(0, 0, 6));
+	}
+}
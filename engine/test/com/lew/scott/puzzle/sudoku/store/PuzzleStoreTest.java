@@ -0,0 +1,203 @@
+package com.lew.scott.puzzle.sudoku.store;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.lew.scott.puzzle.sudoku.data.SudokuGrid;
+import com.lew.scott.puzzle.sudoku.data.SudokuMatrix;
+
+/**
+ * PuzzleStoreWriter写出、PuzzleStore读回，包括难度索引
+ */
+public class PuzzleStoreTest {
+
+	private static final int LEVELS = 4; // 难度1不添加谜题
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * 按难度交错添加谜题，返回每个难度按添加顺序的谜题
+	 */
+	private List<List<SudokuGrid>> write(File file, int count) throws IOException {
+		List<List<SudokuGrid>> added = new ArrayList<List<SudokuGrid>>();
+		for (int d = 0; d < LEVELS; d++) {
+			added.add(new ArrayList<SudokuGrid>());
+		}
+		SudokuMatrix generator = new SudokuMatrix(new Random(1));
+		PuzzleStoreWriter writer = new PuzzleStoreWriter(file);
+		try {
+			for (int k = 0; k < count; k++) {
+				int difficulty = k % 3 == 0 ? 0 : k % 3 == 1 ? 2 : 3;
+				generator.generatePuzzle();
+				SudokuGrid g = generator.getGrid();
+				writer.add(g, difficulty);
+				added.get(difficulty).add(g);
+			}
+			assertEquals(count, writer.size());
+			writer.close();
+		} finally {
+			writer.abort();
+		}
+		return added;
+	}
+
+	@Test
+	public void roundTrip() throws IOException {
+		File file = folder.newFile("puzzles.store");
+		List<List<SudokuGrid>> added = write(file, 100);
+		PuzzleStore store = PuzzleStore.open(file);
+		try {
+			assertEquals(100, store.size());
+			assertEquals(LEVELS, store.getLevelCount());
+			long expectedStart = 0;
+			for (int d = 0; d < LEVELS; d++) {
+				List<SudokuGrid> level = added.get(d);
+				assertEquals(level.size(), store.count(d));
+				assertEquals(expectedStart, store.start(d));
+				for (int k = 0; k < level.size(); k++) {
+					long index = store.start(d) + k;
+					assertEquals(level.get(k), store.get(index));
+					assertEquals(d, store.getDifficulty(index));
+				}
+				expectedStart += level.size();
+			}
+			assertEquals(0, store.count(LEVELS));
+			assertEquals(0, store.count(-1));
+		} finally {
+			store.close();
+		}
+	}
+
+	@Test
+	public void randomStaysInLevel() throws IOException {
+		File file = folder.newFile("puzzles.store");
+		write(file, 60);
+		PuzzleStore store = PuzzleStore.open(file);
+		try {
+			Random random = new Random(3);
+			SudokuGrid g = new SudokuGrid();
+			for (int k = 0; k < 200; k++) {
+				int d = k % LEVELS;
+				long index = store.random(d, random, g);
+				if (store.count(d) == 0) {
+					assertEquals(-1, index);
+					continue;
+				}
+				assertTrue(index >= store.start(d) && index < store.start(d) + store.count(d));
+				assertEquals(store.get(index), g);
+			}
+		} finally {
+			store.close();
+		}
+	}
+
+	@Test
+	public void noTempFilesLeft() throws IOException {
+		File dir = folder.newFolder();
+		File file = new File(dir, "puzzles.store");
+		write(file, 10);
+		assertEquals(1, dir.list().length);
+
+		PuzzleStoreWriter writer = new PuzzleStoreWriter(new File(dir, "aborted.store"));
+		writer.add(SudokuGrid.parse("53..7....6..195....98....6.8...6...34..8.3..17...2...6.6....28....419..5....8..79"), 5);
+		writer.abort();
+		assertFalse(new File(dir, "aborted.store").exists());
+		assertEquals(1, dir.list().length);
+	}
+
+	@Test
+	public void abortDeletesTempFileOfFailedAdd() throws IOException {
+		File dir = folder.newFolder();
+		PuzzleStoreWriter writer = new PuzzleStoreWriter(new File(dir, "failed.store"));
+		writer.add(SudokuGrid.parse("53..7....6..195....98....6.8...6...34..8.3..17...2...6.6....28....419..5....8..79"), 1);
+		try {
+			// 难度9的临时文件已经建立，写入失败
+			writer.add((SudokuGrid) null, 9);
+			fail();
+		} catch (NullPointerException e) {
+			// 预期
+		}
+		assertEquals(2, dir.list().length);
+		writer.abort();
+		assertEquals(0, dir.list().length);
+	}
+
+	@Test
+	public void rejectsTruncatedFile() throws IOException {
+		File file = folder.newFile("puzzles.store");
+		write(file, 30);
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		try {
+			raf.setLength(raf.length() - 1);
+		} finally {
+			raf.close();
+		}
+		assertOpenFails(file);
+	}
+
+	@Test
+	public void rejectsLevelIndexOutOfRange() throws IOException {
+		File file = folder.newFile("puzzles.store");
+		write(file, 30);
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		try {
+			// 难度2的记录数改得比总数还大
+			raf.seek(PuzzleStore.HEADER_SIZE + 2 * PuzzleStore.LEVEL_ENTRY_SIZE + 8);
+			raf.writeLong(31);
+		} finally {
+			raf.close();
+		}
+		assertOpenFails(file);
+	}
+
+	@Test
+	public void getRejectsDigitsAboveNine() throws IOException {
+		File file = folder.newFile("puzzles.store");
+		write(file, 30);
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		try {
+			// 第0条记录的第一个单元格改为15
+			raf.seek(PuzzleStore.HEADER_SIZE + LEVELS * PuzzleStore.LEVEL_ENTRY_SIZE + 1);
+			raf.write(0xF0);
+		} finally {
+			raf.close();
+		}
+		PuzzleStore store = PuzzleStore.open(file);
+		try {
+			SudokuGrid g = new SudokuGrid();
+			try {
+				store.get(0, g);
+				fail();
+			} catch (IllegalStateException e) {
+				// 预期
+			}
+			assertEquals(new SudokuGrid(), g);
+			store.get(1, g);
+		} finally {
+			store.close();
+		}
+	}
+
+	private static void assertOpenFails(File file) {
+		try {
+			PuzzleStore.open(file).close();
+			fail("损坏的文件应该在打开时报错");
+		} catch (IOException e) {
+			// 预期
+		}
+	}
+}
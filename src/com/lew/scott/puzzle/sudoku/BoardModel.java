@@ -0,0 +1,151 @@
+package com.lew.scott.puzzle.sudoku;
+
+/**
+ * 棋盘上显示的内容：每个单元格的数字、状态、尝试次数和小记(可选值掩码，数字v对应第v位)，都放在int数组中，
+ * 按位置(行优先)下标访问。修改不分配对象，由视图按位置重新绑定。只在主线程上使用
+ */
+public class BoardModel {
+
+	public static final int STATE_EMPTY = 0; // 待填
+	public static final int STATE_PRESET = 1; // 谜题给出的数字，不能修改
+	public static final int STATE_USER = 2; // 用户填的数字或小记
+	public static final int STATE_SOLVED = 3; // 程序求出的数字
+	public static final int STATE_COUNT = 4;
+
+	private final int length;
+	private final int[] values; // 0表示没有数字
+	private final int[] states;
+	private final int[] tryTimes;
+	private final int[] notes;
+
+	public BoardModel(int length) {
+		this.length = length;
+		int n = length * length;
+		values = new int[n];
+		states = new int[n];
+		tryTimes = new int[n];
+		notes = new int[n];
+	}
+
+	public int getLength() {
+		return length;
+	}
+
+	public int size() {
+		return values.length;
+	}
+
+	/**
+	 * 载入谜题：有数字的是{@link #STATE_PRESET}，其他的待填，尝试次数和小记清零
+	 *
+	 * @param puzzle
+	 */
+	public void load(int[][] puzzle) {
+		for (int i = 0; i < length; i++) {
+			for (int j = 0; j < length; j++) {
+				int pos = i * length + j;
+				int v = puzzle[i][j];
+				values[pos] = v;
+				states[pos] = v == 0 ? STATE_EMPTY : STATE_PRESET;
+				tryTimes[pos] = 0;
+				notes[pos] = 0;
+			}
+		}
+	}
+
+	/**
+	 * 清空所有单元格
+	 */
+	public void clear() {
+		for (int pos = 0; pos < values.length; pos++) {
+			clear(pos);
+		}
+	}
+
+	/**
+	 * 清空一个单元格的数字和小记，保留尝试次数
+	 *
+	 * @param pos
+	 */
+	public void clear(int pos) {
+		values[pos] = 0;
+		states[pos] = STATE_EMPTY;
+		notes[pos] = 0;
+	}
+
+	/**
+	 * 设定数字，同时清除小记
+	 *
+	 * @param pos
+	 * @param value
+	 * @param state
+	 */
+	public void setValue(int pos, int value, int state) {
+		values[pos] = value;
+		states[pos] = state;
+		notes[pos] = 0;
+	}
+
+	/**
+	 * 在小记中加上数字v；单元格原来有数字时，原来的数字也变成小记
+	 *
+	 * @param pos
+	 * @param v
+	 */
+	public void addNote(int pos, int v) {
+		int mask = notes[pos] | 1 << v;
+		if (values[pos] != 0) {
+			mask |= 1 << values[pos];
+			values[pos] = 0;
+		}
+		notes[pos] = mask;
+		states[pos] = STATE_USER;
+	}
+
+	/**
+	 * 设定小记(提示的可选值)，不改变状态
+	 *
+	 * @param pos
+	 * @param mask
+	 */
+	public void setNotes(int pos, int mask) {
+		notes[pos] = mask;
+	}
+
+	public int getValue(int pos) {
+		return values[pos];
+	}
+
+	public int getState(int pos) {
+		return states[pos];
+	}
+
+	public int getNotes(int pos) {
+		return notes[pos];
+	}
+
+	/**
+	 * 单元格上既没有数字也没有小记
+	 *
+	 * @param pos
+	 * @return
+	 */
+	public boolean isBlank(int pos) {
+		return values[pos] == 0 && notes[pos] == 0;
+	}
+
+	public int getTryTimes(int pos) {
+		return tryTimes[pos];
+	}
+
+	/**
+	 * 增加尝试次数
+	 *
+	 * @param pos
+	 * @param count
+	 * @return 增加后的次数
+	 */
+	public int increaseTryTimes(int pos, int count) {
+		return tryTimes[pos] += count;
+	}
+}
@@ -0,0 +1,110 @@
+package com.lew.scott.puzzle.sudoku;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import com.lew.scott.puzzle.sudoku.data.SolveCallback;
+import com.lew.scott.puzzle.sudoku.data.SolveTrace;
+import com.lew.scott.puzzle.sudoku.data.SolveTraceReplayer;
+
+/**
+ * 在主线程上按固定速度回放求解记录。
+ *
+ * 求解在工作线程中全速进行，只把事件记录到{@link SolveTrace}；回放时每帧(最多每{@link #FRAME_MILLIS}毫秒一次)
+ * 把到期的所有事件一次交给回调，所以不论求解多快、事件多少，消息队列中最多只有一个待处理的帧。
+ * 回调直接在主线程上执行，可以直接修改视图，包括用reduceCellCallback更新可选值。
+ */
+public class SolveProgressPlayer {
+
+	public static final long FRAME_MILLIS = 16;
+	public static final int DEFAULT_CELLS_PER_SECOND = 2;
+
+	public interface Listener {
+		/**
+		 * 全部事件都已交出
+		 */
+		public void onReplayFinished();
+	}
+
+	private final Handler handler = new Handler(Looper.getMainLooper());
+	private final Runnable frame = new Runnable() {
+		public void run() {
+			doFrame();
+		}
+	};
+	private int cellsPerSecond = DEFAULT_CELLS_PER_SECOND;
+	private SolveTraceReplayer replayer;
+	private SolveCallback callBack;
+	private Listener listener;
+	private long startTime;
+	private int deliveredCells;
+
+	/**
+	 * 回放速度，每秒求出的单元格数，与求解用了多少时间无关
+	 *
+	 * @param cellsPerSecond
+	 */
+	public void setCellsPerSecond(int cellsPerSecond) {
+		this.cellsPerSecond = Math.max(1, cellsPerSecond);
+	}
+
+	public int getCellsPerSecond() {
+		return cellsPerSecond;
+	}
+
+	/**
+	 * 开始回放，必须在主线程上调用。正在回放的记录会被取消
+	 *
+	 * @param trace
+	 * @param callBack
+	 *            在主线程上接收事件
+	 * @param listener
+	 */
+	public void start(SolveTrace trace, SolveCallback callBack, Listener listener) {
+		cancel();
+		this.replayer = new SolveTraceReplayer(trace);
+		this.callBack = callBack;
+		this.listener = listener;
+		this.startTime = SystemClock.uptimeMillis();
+		this.deliveredCells = 0;
+		handler.post(frame);
+	}
+
+	/**
+	 * 停止回放，不再交出事件，也不通知listener
+	 */
+	public void cancel() {
+		handler.removeCallbacks(frame);
+		replayer = null;
+		callBack = null;
+		listener = null;
+	}
+
+	public boolean isPlaying() {
+		return replayer != null;
+	}
+
+	private void doFrame() {
+		if (replayer == null) {
+			return;
+		}
+		long now = SystemClock.uptimeMillis();
+		// 到现在为止应该求出的单元格数
+		int due = (int) ((now - startTime) * cellsPerSecond / 1000) + 1;
+		deliveredCells += replayer.advanceCells(callBack, due - deliveredCells);
+		if (!replayer.hasNext()) {
+			Listener l = listener;
+			replayer = null;
+			callBack = null;
+			listener = null;
+			if (l != null) {
+				l.onReplayFinished();
+			}
+			return;
+		}
+		// 下一个单元格到期时再醒来，但不早于下一帧
+		long next = startTime + (long) deliveredCells * 1000 / cellsPerSecond;
+		handler.postDelayed(frame, Math.max(FRAME_MILLIS, next - now));
+	}
+}
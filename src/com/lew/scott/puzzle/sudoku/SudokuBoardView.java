@@ -0,0 +1,290 @@
+package com.lew.scott.puzzle.sudoku;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.util.AttributeSet;
+import android.view.GestureDetector;
+import android.view.MotionEvent;
+import android.view.View;
+
+/**
+ * 在一个View上画出整个棋盘：单元格背景、数字、小记和网格线，内容都来自{@link BoardModel}。
+ * Paint和数字文本在创建或尺寸变化时准备好，绘制时不分配对象；触摸位置换算成单元格位置后交给{@link OnCellClickListener}
+ */
+public class SudokuBoardView extends View {
+
+	public interface OnCellClickListener {
+		public void onCellClick(int position);
+
+		public void onCellLongClick(int position);
+	}
+
+	private static final long FLASH_MILLIS = 200;
+
+	private BoardModel mModel;
+	private int mLength;
+	private int mRoot;
+	private int[] mStateColors; // BoardModel每种状态的背景色
+	private String[] mDigitTexts;
+	private int mSelectedPosition = -1;
+	private int mFlashPosition = -1;
+	private int mFlashColor;
+	private OnCellClickListener mListener;
+
+	private final Paint mCellPaint = new Paint();
+	private final Paint mThinLinePaint = new Paint();
+	private final Paint mThickLinePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+	private final Paint mSelectedPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+	private final Paint mDigitPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+	private final Paint mNotePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+	private final Paint.FontMetrics mFontMetrics = new Paint.FontMetrics();
+	private float mBoardLeft, mBoardTop, mCellSize;
+	private float mDigitBaseline, mNoteBaseline; // 文字基线相对于格子中心的偏移
+
+	private final GestureDetector mGestureDetector;
+	private final Runnable mClearFlash = new Runnable() {
+		public void run() {
+			int pos = mFlashPosition;
+			mFlashPosition = -1;
+			if (pos != -1) {
+				invalidateCell(pos);
+			}
+		}
+	};
+
+	public SudokuBoardView(Context context) {
+		this(context, null);
+	}
+
+	public SudokuBoardView(Context context, AttributeSet attrs) {
+		super(context, attrs);
+		float density = getResources().getDisplayMetrics().density;
+		mCellPaint.setStyle(Paint.Style.FILL);
+		mThinLinePaint.setColor(SudokuPuzzleActivity.FAKE_GRID_BORDER_COLOR);
+		mThinLinePaint.setStrokeWidth(1);
+		mThickLinePaint.setColor(SudokuPuzzleActivity.FAKE_BIG_GRID_BORDER_COLOR);
+		mThickLinePaint.setStrokeWidth(3 * density);
+		mSelectedPaint.setColor(SudokuPuzzleActivity.SELECTED_FIELD_COLOR);
+		mSelectedPaint.setStyle(Paint.Style.STROKE);
+		mSelectedPaint.setStrokeWidth(3 * density);
+		mDigitPaint.setColor(0xFF000000);
+		mDigitPaint.setTextAlign(Paint.Align.CENTER);
+		mNotePaint.setColor(0xFF000000);
+		mNotePaint.setTextAlign(Paint.Align.CENTER);
+		mGestureDetector = new GestureDetector(context, new GestureDetector.SimpleOnGestureListener() {
+			@Override
+			public boolean onDown(MotionEvent e) {
+				return true;
+			}
+
+			@Override
+			public boolean onSingleTapUp(MotionEvent e) {
+				int pos = positionAt(e.getX(), e.getY());
+				if (pos != -1 && mListener != null) {
+					mListener.onCellClick(pos);
+				}
+				return true;
+			}
+
+			@Override
+			public void onLongPress(MotionEvent e) {
+				int pos = positionAt(e.getX(), e.getY());
+				if (pos != -1 && mListener != null) {
+					mListener.onCellLongClick(pos);
+				}
+			}
+		});
+	}
+
+	/**
+	 * 设定要画的棋盘
+	 *
+	 * @param model
+	 * @param root
+	 *            小矩阵边长
+	 * @param stateColors
+	 *            {@link BoardModel}每种状态的背景色
+	 */
+	public void setModel(BoardModel model, int root, int[] stateColors) {
+		mModel = model;
+		mLength = model.getLength();
+		mRoot = root;
+		mStateColors = stateColors;
+		mDigitTexts = new String[mLength + 1];
+		mDigitTexts[0] = "";
+		for (int v = 1; v <= mLength; v++) {
+			mDigitTexts[v] = String.valueOf(v);
+		}
+		mSelectedPosition = -1;
+		updateGeometry();
+		invalidate();
+	}
+
+	public void setOnCellClickListener(OnCellClickListener listener) {
+		mListener = listener;
+	}
+
+	/**
+	 * 选中的单元格画选中色的边框，-1表示没有选中
+	 *
+	 * @param position
+	 */
+	public void setSelectedPosition(int position) {
+		if (position == mSelectedPosition) {
+			return;
+		}
+		int old = mSelectedPosition;
+		mSelectedPosition = position;
+		if (old != -1) {
+			invalidateCell(old);
+		}
+		if (position != -1) {
+			invalidateCell(position);
+		}
+	}
+
+	public int getSelectedPosition() {
+		return mSelectedPosition;
+	}
+
+	/**
+	 * 用冲突色短暂地闪一下单元格
+	 *
+	 * @param position
+	 * @param color
+	 */
+	public void flashCell(int position, int color) {
+		removeCallbacks(mClearFlash);
+		mClearFlash.run();
+		mFlashPosition = position;
+		mFlashColor = color;
+		invalidateCell(position);
+		postDelayed(mClearFlash, FLASH_MILLIS);
+	}
+
+	/**
+	 * BoardModel中position位置的内容变了，只重画这个单元格
+	 *
+	 * @param position
+	 */
+	public void invalidateCell(int position) {
+		if (mModel == null) {
+			return;
+		}
+		float left = mBoardLeft + position % mLength * mCellSize;
+		float top = mBoardTop + position / mLength * mCellSize;
+		int pad = (int) Math.ceil(mThickLinePaint.getStrokeWidth());
+		invalidate((int) left - pad, (int) top - pad, (int) (left + mCellSize) + pad, (int) (top + mCellSize) + pad);
+	}
+
+	/**
+	 * 坐标(x,y)处的单元格位置，不在棋盘上时返回-1
+	 *
+	 * @param x
+	 * @param y
+	 * @return
+	 */
+	public int positionAt(float x, float y) {
+		if (mModel == null || mCellSize <= 0) {
+			return -1;
+		}
+		int col = (int) Math.floor((x - mBoardLeft) / mCellSize);
+		int row = (int) Math.floor((y - mBoardTop) / mCellSize);
+		if (row < 0 || row >= mLength || col < 0 || col >= mLength) {
+			return -1;
+		}
+		return row * mLength + col;
+	}
+
+	@Override
+	protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+		// 正方形：按宽度决定边长，高度受限时取较小的一个
+		int width = getDefaultSize(getSuggestedMinimumWidth(), widthMeasureSpec);
+		int side = width;
+		if (MeasureSpec.getMode(heightMeasureSpec) != MeasureSpec.UNSPECIFIED) {
+			side = Math.min(side, MeasureSpec.getSize(heightMeasureSpec));
+		}
+		setMeasuredDimension(width, side);
+	}
+
+	@Override
+	protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+		super.onSizeChanged(w, h, oldw, oldh);
+		updateGeometry();
+	}
+
+	// 按当前尺寸计算格子大小和字体大小
+	private void updateGeometry() {
+		if (mModel == null) {
+			return;
+		}
+		int innerWidth = getWidth() - getPaddingLeft() - getPaddingRight();
+		int innerHeight = getHeight() - getPaddingTop() - getPaddingBottom();
+		float side = Math.min(innerWidth, innerHeight) - mThickLinePaint.getStrokeWidth();
+		if (side <= 0) {
+			mCellSize = 0;
+			return;
+		}
+		mCellSize = side / mLength;
+		mBoardLeft = getPaddingLeft() + (innerWidth - side) / 2;
+		mBoardTop = getPaddingTop() + (innerHeight - side) / 2;
+		mDigitPaint.setTextSize(mCellSize * 0.6f);
+		mDigitPaint.getFontMetrics(mFontMetrics);
+		mDigitBaseline = -(mFontMetrics.ascent + mFontMetrics.descent) / 2;
+		mNotePaint.setTextSize(mCellSize / mRoot * 0.8f);
+		mNotePaint.getFontMetrics(mFontMetrics);
+		mNoteBaseline = -(mFontMetrics.ascent + mFontMetrics.descent) / 2;
+	}
+
+	@Override
+	protected void onDraw(Canvas canvas) {
+		if (mModel == null || mCellSize <= 0) {
+			return;
+		}
+		float cell = mCellSize, sub = cell / mRoot;
+		for (int pos = 0; pos < mModel.size(); pos++) {
+			float left = mBoardLeft + pos % mLength * cell;
+			float top = mBoardTop + pos / mLength * cell;
+			mCellPaint.setColor(pos == mFlashPosition ? mFlashColor : mStateColors[mModel.getState(pos)]);
+			canvas.drawRect(left, top, left + cell, top + cell, mCellPaint);
+			int value = mModel.getValue(pos);
+			if (value != 0) {
+				canvas.drawText(mDigitTexts[value], left + cell / 2, top + cell / 2 + mDigitBaseline, mDigitPaint);
+				continue;
+			}
+			// 小记：数字d画在格子内root*root小格中的第d-1个
+			for (int m = mModel.getNotes(pos); m != 0; m &= m - 1) {
+				int d = Integer.numberOfTrailingZeros(m) - 1;
+				float cx = left + (d % mRoot + 0.5f) * sub;
+				float cy = top + (d / mRoot + 0.5f) * sub;
+				canvas.drawText(mDigitTexts[d + 1], cx, cy + mNoteBaseline, mNotePaint);
+			}
+		}
+		float right = mBoardLeft + cell * mLength, bottom = mBoardTop + cell * mLength;
+		for (int k = 0; k <= mLength; k++) {
+			if (k % mRoot == 0) {
+				continue;
+			}
+			float x = mBoardLeft + k * cell, y = mBoardTop + k * cell;
+			canvas.drawLine(x, mBoardTop, x, bottom, mThinLinePaint);
+			canvas.drawLine(mBoardLeft, y, right, y, mThinLinePaint);
+		}
+		for (int k = 0; k <= mLength; k += mRoot) {
+			float x = mBoardLeft + k * cell, y = mBoardTop + k * cell;
+			canvas.drawLine(x, mBoardTop, x, bottom, mThickLinePaint);
+			canvas.drawLine(mBoardLeft, y, right, y, mThickLinePaint);
+		}
+		if (mSelectedPosition != -1) {
+			float left = mBoardLeft + mSelectedPosition % mLength * cell;
+			float top = mBoardTop + mSelectedPosition / mLength * cell;
+			float inset = mSelectedPaint.getStrokeWidth() / 2;
+			canvas.drawRect(left + inset, top + inset, left + cell - inset, top + cell - inset, mSelectedPaint);
+		}
+	}
+
+	@Override
+	public boolean onTouchEvent(MotionEvent event) {
+		return mGestureDetector.onTouchEvent(event) || super.onTouchEvent(event);
+	}
+}
@@ -1,10 +1,5 @@
 package com.lew.scott.puzzle.sudoku;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-
 import android.app.Activity;
 import android.app.Dialog;
 import android.content.Context;
@@ -13,7 +8,6 @@ import android.graphics.drawable.Drawable;
 import android.media.AudioManager;
 import android.media.SoundPool;
 import android.os.Bundle;
-import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.Menu;
 import android.view.MenuInflater;
@@ -21,40 +15,27 @@ import android.view.MenuItem;
 import android.view.View;
 import android.view.View.OnClickListener;
 import android.view.Window;
-import android.view.animation.AlphaAnimation;
-import android.view.animation.Animation;
 import android.view.inputmethod.InputMethodManager;
-import android.widget.AdapterView;
 import android.widget.Button;
 import android.widget.EditText;
-import android.widget.GridView;
-import android.widget.ListAdapter;
 import android.widget.TextView;
-import android.widget.AdapterView.OnItemClickListener;
-import android.widget.AdapterView.OnItemLongClickListener;
-import android.widget.AdapterView.OnItemSelectedListener;
 
-import com.lew.scott.puzzle.sudoku.data.Cell;
 import com.lew.scott.puzzle.sudoku.data.Coord;
 import com.lew.scott.puzzle.sudoku.data.SolveCallback;
+import com.lew.scott.puzzle.sudoku.data.SolveTrace;
 import com.lew.scott.puzzle.sudoku.data.SudokuMatrix;
 
 public class SudokuPuzzleActivity extends Activity
-		implements OnItemSelectedListener, OnItemClickListener, OnItemLongClickListener,
-		OnClickListener {
+		implements SudokuBoardView.OnCellClickListener, OnClickListener {
 
 	private static final int DEFAULT_FIELD_COLOR = Color.WHITE;
 	private static final int NO_VALUE_FIELD_COLOR = Color.GRAY;
-	private static final int SELECTED_FIELD_COLOR = Color.YELLOW;
+	public static final int SELECTED_FIELD_COLOR = Color.YELLOW;
 	private static final int CONFLICT_FIELD_COLOR = Color.YELLOW;
 	private static final int NEW_SOLVED_FIELD_COLOR = Color.GREEN;
 	private static final int USER_SOLVED_FIELD_COLOR = Color.LTGRAY;
 	public static final int FAKE_BIG_GRID_BORDER_COLOR = Color.rgb(200, 100, 0);
 	public static final int FAKE_GRID_BORDER_COLOR = Color.rgb(68, 68, 68);
-	public static final String VIEW_OBJ_VAL_KEY = "numview";
-	public static final String VIEW_OBJ_BG_KEY = "bgcolor";
-	public static final String VIEW_OBJ_TRY_TIMES_KEY = "trytimes";
-	public static final String NO_VALUE_TEXT = "";
 
 	private static final int NEW_PUZZLE_DLG = 1;
 
@@ -64,21 +45,20 @@ public class SudokuPuzzleActivity extends Activity
 	private Button mBtnDiscard = null;
 	private Button mBtnOk = null;
 
-	private GridView matrixGridView;
+	private SudokuBoardView boardView;
 	private TextView msgTextView;
 	private SudokuMatrix sudokuMatrix;
+	private BoardModel boardModel; // 棋盘上显示的内容
 
-	private View selectedView = null;
 	private int selectedPosition = -1;
 	private int currentDegree = SudokuMatrix.DEFAULT_DEGREE;
 	private int hintTimes;
 
 	private boolean isDoNewPuzzle; // 是否做初始化新游戏
 	private boolean isFreeModel; // 是否是自由设定数字模式
-	private boolean isSolving; // 是否正在求解过程中
-
-	private float defaultNumTextSize = 20; //
-	private boolean gotDefaultNumTextSize = false; //
+	private boolean isSolving; // 是否正在求解过程中(包括回放)
+	private final SolveTrace solveTrace = new SolveTrace(); // 求解过程的记录，每次求解重复使用
+	private final SolveProgressPlayer progressPlayer = new SolveProgressPlayer();
 
 	private SoundPool soundPool;
 	private int soundSelect;
@@ -117,6 +97,12 @@ public class SudokuPuzzleActivity extends Activity
 		soundZing = soundPool.load(this, R.raw.sound_zing, 1);
 	}
 
+	@Override
+	protected void onDestroy() {
+		progressPlayer.cancel();
+		super.onDestroy();
+	}
+
 	@Override
 	public void onBackPressed() {
 		moveTaskToBack(true);
@@ -125,19 +111,6 @@ public class SudokuPuzzleActivity extends Activity
 	@Override
 	public void onWindowFocusChanged(boolean hasFocus) {
 		super.onWindowFocusChanged(hasFocus);
-		// 以这种方式得到数字单元格的默认字体大小
-		if (hasFocus && !gotDefaultNumTextSize) {
-			// 使用代码设置TextView需要转换px和sp的, getTextSize返回值是以像素(px)为单位的，而setTextSize()是以sp为单位的。
-			// 现在setTextSize()可以指定单位，旧代码没有单位问题
-			TextView tv = this.getNumViewAtPos(0);
-			float fontScale = getResources().getDisplayMetrics().scaledDensity;
-			defaultNumTextSize = tv.getTextSize() / fontScale;
-			gotDefaultNumTextSize = true;
-			Log.i("NumTextSize", "got defaultNumTextSize: " + defaultNumTextSize);
-			Log.i("NumTextSize", "got getTextSize: " + tv.getTextSize());
-//			Log.i("NumTextSize", "got getScaledTextSize: "+ tv.getScaledTextSize());
-			Log.i("NumTextSize", "got DisplayMetrics: " + getResources().getDisplayMetrics());
-		}
 		if (hasFocus && btnDefaultBackground == null) {
 			btnDefaultBackground = findViewById(R.id.button_notes).getBackground();
 		}
@@ -170,32 +143,20 @@ public class SudokuPuzzleActivity extends Activity
 	}
 
 	private void initGrid() {
-		matrixGridView = (GridView) findViewById(R.id.gridview);
+		boardView = (SudokuBoardView) findViewById(R.id.boardview);
 		msgTextView = (TextView) findViewById(R.id.msgview);
 		sudokuMatrix = new SudokuMatrix();
 
 		int[][] puzzleMatrix = sudokuMatrix.generatePuzzle();
-		List<Map<String, Object>> cells = new ArrayList<Map<String, Object>>();
-		final int MATRIX_WIDTH = SudokuMatrix.SQUARE_LENGTH;
-		final int total_length = MATRIX_WIDTH * MATRIX_WIDTH;
-		for (int i = 0; i < total_length; i++) {
-			Map<String, Object> cell = new HashMap<String, Object>();
-			Coord cd = convPos2Coord(i);
-			int v = puzzleMatrix[cd.x][cd.y];
-			String str = "" + ((v == SudokuMatrix.UNSET_VALUE) ? NO_VALUE_TEXT : v);
-			cell.put(VIEW_OBJ_VAL_KEY, str);
-			int bgColor = (v == SudokuMatrix.UNSET_VALUE) ? NO_VALUE_FIELD_COLOR : DEFAULT_FIELD_COLOR;
-			cell.put(VIEW_OBJ_BG_KEY, bgColor);
-			cells.add(cell);
-		}
-		ListAdapter listAdapter = new SudokuGridAdapter(this,
-				cells, R.layout.cell,
-				new String[]{VIEW_OBJ_VAL_KEY}, new int[]{R.id.numview},
-				VIEW_OBJ_BG_KEY, DEFAULT_FIELD_COLOR, NO_VALUE_FIELD_COLOR);
-		matrixGridView.setAdapter(listAdapter);
-		matrixGridView.setOnItemSelectedListener(this);
-		matrixGridView.setOnItemClickListener(this);
-		matrixGridView.setOnItemLongClickListener(this);
+		boardModel = new BoardModel(sudokuMatrix.getLength());
+		boardModel.load(puzzleMatrix);
+		int[] stateColors = new int[BoardModel.STATE_COUNT];
+		stateColors[BoardModel.STATE_EMPTY] = NO_VALUE_FIELD_COLOR;
+		stateColors[BoardModel.STATE_PRESET] = DEFAULT_FIELD_COLOR;
+		stateColors[BoardModel.STATE_USER] = USER_SOLVED_FIELD_COLOR;
+		stateColors[BoardModel.STATE_SOLVED] = NEW_SOLVED_FIELD_COLOR;
+		boardView.setModel(boardModel, sudokuMatrix.getRoot(), stateColors);
+		boardView.setOnCellClickListener(this);
 	}
 
 	private void initButtons() {
@@ -233,49 +194,31 @@ public class SudokuPuzzleActivity extends Activity
 	}
 
 	@Override
-	public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
-		doSelectItem(parent, view, position, id);
+	public void onCellClick(int position) {
+		doSelectItem(position);
 	}
 
-	@Override
-	public void onNothingSelected(AdapterView<?> parent) {
-	}
-
-	@Override
-	public void onItemClick(AdapterView<?> parent, View view, int position, long id) {
-		doSelectItem(parent, view, position, id);
-	}
-
-	private void doSelectItem(AdapterView<?> parent, View view, int position, long id) {
-//		Log.d("doSelectItem", "new view: " + view + ", old selectedView: " + this.selectedView);
-		if (selectedView == view) {
+	private void doSelectItem(int position) {
+		if (selectedPosition == position) {
 			soundPool.play(soundSelect,1,1,1,0,1);
 			return;
 		}
-		Map<String, Object> itemObj = (Map<String, Object>) matrixGridView.getItemAtPosition(position);
-		int textBgColor = (int) itemObj.get(VIEW_OBJ_BG_KEY);
-		if (textBgColor == DEFAULT_FIELD_COLOR) {
+		if (boardModel.getState(position) == BoardModel.STATE_PRESET) {
 			soundPool.play(soundSelectBad,1,1,1,0,1);
 			return;
 		}
 		hintTimes = 0;
 
-		// 恢复上个选中cell的背景
-		if (selectedView != null) {
-			selectedView.findViewById(R.id.borderview).setBackgroundColor(FAKE_GRID_BORDER_COLOR);
-		}
-		// 设置选中背景颜色
+		// 选中框从上个选中的cell移到这个cell
 		selectedPosition = position;
-		selectedView = view;
-		selectedView.findViewById(R.id.borderview).setBackgroundColor(SELECTED_FIELD_COLOR);
+		boardView.setSelectedPosition(position);
 		soundPool.play(soundSelect,1,1,1,0,1);
 	}
 
 	@Override
-	public boolean onItemLongClick(AdapterView<?> parent, View view, int position, long id) {
+	public void onCellLongClick(int position) {
 		// 显示提示信息
 		doHint(position);
-		return false;
 	}
 
 	private void doHint(int position) {
@@ -308,20 +251,20 @@ public class SudokuPuzzleActivity extends Activity
 	}
 
 	// 把位置转换为坐标
-	public static Coord convPos2Coord(int position) {
+	public Coord convPos2Coord(int position) {
 		Coord cd = new Coord();
-		cd.x = position / SudokuMatrix.SQUARE_LENGTH;
-		cd.y = position % SudokuMatrix.SQUARE_LENGTH;
+		cd.x = position / sudokuMatrix.getLength();
+		cd.y = position % sudokuMatrix.getLength();
 		return cd;
 	}
 
 	// 把坐标转换为位置
-	public static int convCoord2Pos(Coord cd) {
-		return cd.x * SudokuMatrix.SQUARE_LENGTH + cd.y;
+	public int convCoord2Pos(Coord cd) {
+		return cd.x * sudokuMatrix.getLength() + cd.y;
 	}
 
-	public static int convCoord2Pos(int x, int y) {
-		return x * SudokuMatrix.SQUARE_LENGTH + y;
+	public int convCoord2Pos(int x, int y) {
+		return x * sudokuMatrix.getLength() + y;
 	}
 
 	@Override
@@ -389,22 +332,20 @@ public class SudokuPuzzleActivity extends Activity
 	 * @param cmdStr
 	 */
 	private void doSetNum(String cmdStr) {
-		if (selectedView == null || selectedPosition == -1) {
+		if (selectedPosition == -1) {
 			msgTextView.setText("请选择一个单元格");
 			soundPool.play(soundSelectBad,1,1,1,0,1);
 			return;
 		}
 		Coord cd = convPos2Coord(selectedPosition);
-		Map<String, Object> itemObj = (Map<String, Object>) matrixGridView.getItemAtPosition(selectedPosition);
-		int textBgColor = (int) itemObj.get(VIEW_OBJ_BG_KEY);
-		if (textBgColor == DEFAULT_FIELD_COLOR) {
+		if (boardModel.getState(selectedPosition) == BoardModel.STATE_PRESET) {
 			msgTextView.setText("请选择另一个单元格");
 			soundPool.play(soundSelectBad,1,1,1,0,1);
 			return;
 		}
 
 		// 尝试次数增加1
-		int tryTimes = increaseTryTimes(selectedPosition, 1);
+		int tryTimes = boardModel.increaseTryTimes(selectedPosition, 1);
 
 		int cmdNum = cmdStr.charAt(0) - '0';
 		// 判断数字冲突
@@ -412,46 +353,20 @@ public class SudokuPuzzleActivity extends Activity
 		if (cccd != null) {
 			msgTextView.setText("Oops!!");
 			int ccPos = convCoord2Pos(cccd);
-			final View ccView = matrixGridView.getChildAt(ccPos).findViewById(R.id.borderview);
-			Animation anim = new AlphaAnimation(1, 0);
-			anim.setAnimationListener(new Animation.AnimationListener() {
-				public void onAnimationStart(Animation animation) {
-					ccView.setBackgroundColor(CONFLICT_FIELD_COLOR);
-				}
-				public void onAnimationRepeat(Animation animation) {
-				}
-				public void onAnimationEnd(Animation animation) {
-					ccView.setBackgroundColor(FAKE_GRID_BORDER_COLOR);
-				}
-			});
-			anim.setDuration(100);
-			anim.setRepeatCount(1);
-			ccView.startAnimation(anim);
+			boardView.flashCell(ccPos, CONFLICT_FIELD_COLOR);
 			soundPool.play(soundConflict,1,1,1,0,1);
 			return;
 		}
 		// 设定该单元格数字
-		TextView curTextView = (TextView) selectedView.findViewById(R.id.numview);
 		if (isOnlyTakeNotesMode) {
 			// 小记模式
-			String existsNotes = curTextView.getText().toString().trim();
-			if (!existsNotes.contains(cmdStr)) {
-				cmdStr = existsNotes.isEmpty() ? cmdStr : existsNotes + " " + cmdStr;
-				cmdStr += " ";
-			} else {
-				cmdStr = existsNotes + " ";
-			}
-		}
-		curTextView.setTextSize(defaultNumTextSize * (isOnlyTakeNotesMode ? 0.5f : 1));
-		curTextView.setText(cmdStr);
-		curTextView.setBackgroundColor(USER_SOLVED_FIELD_COLOR);
-		// 同时设置 matrixGridView item 值
-		itemObj.put(VIEW_OBJ_VAL_KEY, cmdStr);
-		itemObj.put(VIEW_OBJ_BG_KEY, USER_SOLVED_FIELD_COLOR);
-		if (isOnlyTakeNotesMode) {
+			boardModel.addNote(selectedPosition, cmdNum);
+			refreshCell(selectedPosition);
 			sudokuMatrix.unsetCellValue(cd.x, cd.y);
 			return;
 		}
+		boardModel.setValue(selectedPosition, cmdNum, BoardModel.STATE_USER);
+		refreshCell(selectedPosition);
 		sudokuMatrix.setCellValue(cd.x, cd.y, cmdNum);
 		if (isFreeModel) {
 			return;
@@ -472,28 +387,21 @@ public class SudokuPuzzleActivity extends Activity
 	}
 
 	private void doUnset() {
-		if (selectedView == null || selectedPosition == -1) {
+		if (selectedPosition == -1) {
 			msgTextView.setText("请选择一个单元格");
 			return;
 		}
 		Coord cd = convPos2Coord(selectedPosition);
-		Cell cell = sudokuMatrix.getCell(cd.x, cd.y);
-		Map<String, Object> itemObj = (Map<String, Object>) matrixGridView.getItemAtPosition(selectedPosition);
-		int textBgColor = (int) itemObj.get(VIEW_OBJ_BG_KEY);
-		if (textBgColor == DEFAULT_FIELD_COLOR) {
+		if (boardModel.getState(selectedPosition) == BoardModel.STATE_PRESET) {
 			msgTextView.setText("请选择另一个单元格");
 			return;
 		}
 		hintTimes = 0;
 
 		sudokuMatrix.unsetCellValue(cd.x, cd.y);
-		cell.unset();
-		TextView curTextView = getNumViewAtPos(selectedPosition);
-		curTextView.setText(NO_VALUE_TEXT);
-		curTextView.setBackgroundColor(NO_VALUE_FIELD_COLOR);
-		// 同时清空 matrixGridView item 值
-		itemObj.put(VIEW_OBJ_VAL_KEY, NO_VALUE_TEXT);
-		itemObj.put(VIEW_OBJ_BG_KEY, NO_VALUE_FIELD_COLOR);
+		sudokuMatrix.getCell(cd.x, cd.y).unset();
+		boardModel.clear(selectedPosition);
+		refreshCell(selectedPosition);
 	}
 
 	private void doSolve() {
@@ -505,58 +413,44 @@ public class SudokuPuzzleActivity extends Activity
 			isSolving = false;
 			return;
 		}
-		final int sleep = 500;
 		if (sudokuMatrix.unsolvedCount() > 50) {
 			msgTextView.setText("你在开玩笑吧，空白处太多了，可能求解失败。");
-			try {
-				Thread.sleep(sleep);
-			} catch (Exception e) {
-			}
+		} else {
+			msgTextView.setText("正在求解...");
 		}
-		// 开始求解
-		msgTextView.setText("正在求解...");
+		// 在工作线程中全速求解，只记录过程；求解结束后在主线程上按固定速度回放
+		final SolveTrace trace = solveTrace;
+		trace.clear();
 		new Thread(new Runnable() {
 			public void run() {
-				boolean flag = sudokuMatrix.solve(new SolveCallback() {
-					public void iterateCallback(final int itrTimes, boolean isAllSolved, boolean hasAchievement) {
-						msgTextView.post(new Runnable() {
-							public void run() {
-								msgTextView.setText("迭代" + itrTimes + "次");
-							}
-						});
+				final boolean flag = sudokuMatrix.solve(trace);
+				msgTextView.post(new Runnable() {
+					public void run() {
+						replaySolve(trace, flag);
 					}
+				});
+			}
+		}).start();
+	}
 
-					public void solveCellCallback(int x, int y, final int value) {
-						final int pos = convCoord2Pos(x, y);
-						final TextView tv = getNumViewAtPos(pos);
-						tv.post(new Runnable() {
-							public void run() {
-								tv.setTextSize(defaultNumTextSize);
-								tv.setText("" + value);
-								tv.setBackgroundColor(NEW_SOLVED_FIELD_COLOR);
-								// 同时设置 matrixGridView item 值
-								Map<String, Object> itemObj = (Map<String, Object>) matrixGridView.getItemAtPosition(pos);
-								itemObj.put(VIEW_OBJ_VAL_KEY, "" + value);
-								itemObj.put(VIEW_OBJ_BG_KEY, NEW_SOLVED_FIELD_COLOR);
-							}
-						});
-						try {
-							Thread.sleep(sleep);
-						} catch (Exception e) {
-						}
-					}
+	private void replaySolve(SolveTrace trace, final boolean flag) {
+		progressPlayer.start(trace, new SolveCallback() {
+			public void iterateCallback(int itrTimes, boolean isAllSolved, boolean hasAchievement) {
+				msgTextView.setText("迭代" + itrTimes + "次");
+			}
 
-					public void reduceCellCallback(int x, int y, int value) {
+			public void solveCellCallback(int x, int y, int value) {
+				int pos = convCoord2Pos(x, y);
+				boardModel.setValue(pos, value, BoardModel.STATE_SOLVED);
+				refreshCell(pos);
+			}
 
-					}
+			public void reduceCellCallback(int x, int y, int value) {
 
-				});
-				final String msg = flag ? "求解成功。" : "求解失败。";
-				msgTextView.post(new Runnable() {
-					public void run() {
-						msgTextView.setText(msg);
-					}
-				});
+			}
+		}, new SolveProgressPlayer.Listener() {
+			public void onReplayFinished() {
+				msgTextView.setText(flag ? "求解成功。" : "求解失败。");
 				if (flag) {
 					soundPool.play(soundAllOk, 1, 1, 7, 1, 1.25f);
 				} else {
@@ -564,29 +458,25 @@ public class SudokuPuzzleActivity extends Activity
 				}
 				isSolving = false;
 			}
-		}).start();
-
+		});
 	}
 
 	/**
-	 * 按文本框输入的数字，初始化数独矩阵对象
+	 * 按棋盘上的数字，初始化数独矩阵对象
 	 */
 	private void initByHandFromView2Matrix() {
-		for (int i = 0; i < SudokuMatrix.SQUARE_LENGTH; i++) {
-			for (int j = 0; j < SudokuMatrix.SQUARE_LENGTH; j++) {
+		for (int i = 0; i < sudokuMatrix.getLength(); i++) {
+			for (int j = 0; j < sudokuMatrix.getLength(); j++) {
 				int pos = convCoord2Pos(i, j);
-				TextView tv = getNumViewAtPos(pos);
-				try {
-					int v = Integer.parseInt(tv.getText().toString());
-					if (sudokuMatrix.setCellValue(i, j, v)) {// 尝试给(i,j)设定坐标值
-//						tv.setBackgroundColor(DEFAULT_FIELD_COLOR);
-						continue;
-					}
-				} catch (Exception ex) {
+				int v = boardModel.getValue(pos);
+				if (v != SudokuMatrix.UNSET_VALUE && sudokuMatrix.setCellValue(i, j, v)) {// 尝试给(i,j)设定坐标值
+					continue;
 				}
 				// 设定单元格(i,j)值失败
-				tv.setText(NO_VALUE_TEXT);
-				tv.setBackgroundColor(NO_VALUE_FIELD_COLOR);
+				if (!boardModel.isBlank(pos) || boardModel.getState(pos) != BoardModel.STATE_EMPTY) {
+					boardModel.clear(pos);
+					refreshCell(pos);
+				}
 				sudokuMatrix.unsetCellValue(i, j);
 			}
 		}
@@ -619,7 +509,7 @@ public class SudokuPuzzleActivity extends Activity
 						break;
 					}
 					case R.id.BTN_OK : {
-						// 关闭输入法软键盘，否则初始化GridView会出错
+						// 关闭输入法软键盘，否则初始化棋盘会出错
 						InputMethodManager imm = (InputMethodManager) mDegreeInput.getContext().getSystemService(
 								Context.INPUT_METHOD_SERVICE);
 						imm.hideSoftInputFromWindow(mDegreeInput.getWindowToken(), 0);
@@ -654,22 +544,8 @@ public class SudokuPuzzleActivity extends Activity
 		sudokuMatrix.setDegreeOfPuzzle(degree);
 		int[][] puzzleMatrix = sudokuMatrix.generatePuzzle();
 
-		final int MATRIX_WIDTH = SudokuMatrix.SQUARE_LENGTH;
-		final int total_length = MATRIX_WIDTH * MATRIX_WIDTH;
-		for (int i = 0; i < total_length; i++) {
-			Map<String, Object> cell = (Map<String, Object>) matrixGridView.getItemAtPosition(i);
-			TextView tv = getNumViewAtPos(i);
-			Coord cd = convPos2Coord(i);
-			int v = puzzleMatrix[cd.x][cd.y];
-			String str = "" + ((v == SudokuMatrix.UNSET_VALUE) ? NO_VALUE_TEXT : v);
-			int bgColor = (v == SudokuMatrix.UNSET_VALUE) ? NO_VALUE_FIELD_COLOR : DEFAULT_FIELD_COLOR;
-			cell.put(VIEW_OBJ_VAL_KEY, str);
-			cell.put(VIEW_OBJ_BG_KEY, bgColor);
-			cell.put(VIEW_OBJ_TRY_TIMES_KEY, 0);
-			tv.setTextSize(defaultNumTextSize);
-			tv.setText(str);
-			tv.setBackgroundColor(bgColor);
-		}
+		boardModel.load(puzzleMatrix);
+		refreshAll();
 		hintTimes = 0;
 	}
 
@@ -689,43 +565,28 @@ public class SudokuPuzzleActivity extends Activity
 	}
 
 	private void doCustomizeMatrix() {
-		for (int i = 0; i < SudokuMatrix.SQUARE_LENGTH; i++) {
-			for (int j = 0; j < SudokuMatrix.SQUARE_LENGTH; j++) {
-				int pos = convCoord2Pos(i, j);
-				TextView tv = getNumViewAtPos(pos);
+		for (int i = 0; i < sudokuMatrix.getLength(); i++) {
+			for (int j = 0; j < sudokuMatrix.getLength(); j++) {
 				// 清空单元格(i,j)值
-				tv.setText(NO_VALUE_TEXT);
-				tv.setBackgroundColor(NO_VALUE_FIELD_COLOR);
-				// 同时清空 matrixGridView item 值
-				Map<String, Object> itemObj = (Map<String, Object>) matrixGridView.getItemAtPosition(pos);
-				itemObj.put(VIEW_OBJ_VAL_KEY, NO_VALUE_TEXT);
-				itemObj.put(VIEW_OBJ_BG_KEY, NO_VALUE_FIELD_COLOR);
 				sudokuMatrix.unsetCellValue(i, j);
 				sudokuMatrix.getCell(i, j).unset();
 			}
 		}
+		boardModel.clear();
+		refreshAll();
 		isFreeModel = true;
 		setOnlyTakeNotesMode(mBtnNotes, true);
 		msgTextView.setText("自由设定单元格内的数字，可用程序求解。");
 	}
 
-	// 得到position位置的数字视图
-	private TextView getNumViewAtPos(int position) {
-		View chView = matrixGridView.getChildAt(position);
-		return (TextView) chView.findViewById(R.id.numview);
+	// 按boardModel重画position位置的单元格
+	private void refreshCell(int position) {
+		boardView.invalidateCell(position);
 	}
 
-	// 增加尝试次数
-	private int increaseTryTimes(int position, int count) {
-		Map<String, Object> itemObj = (Map<String, Object>) matrixGridView.getItemAtPosition(position);
-		Object tryTimes = itemObj.get(VIEW_OBJ_TRY_TIMES_KEY);
-		if (tryTimes == null) {
-			tryTimes = new Integer(count);
-		} else {
-			tryTimes = Integer.valueOf(((Integer) tryTimes).intValue() + count);
-		}
-		itemObj.put(VIEW_OBJ_TRY_TIMES_KEY, tryTimes);
-		return (Integer) tryTimes;
+	// 重画整个棋盘，不重新布局
+	private void refreshAll() {
+		boardView.invalidate();
 	}
 
 	// 显示一个单元格的提示信息
@@ -736,18 +597,18 @@ public class SudokuPuzzleActivity extends Activity
 			return false;
 		}
 		// 获得可选数字
-		ArrayList<Integer> al = sudokuMatrix.getCellOptValueList(cd.x, cd.y);
-		if (al == null) {
+		int candidates = sudokuMatrix.getCellCandidates(cd.x, cd.y);
+		if (candidates == 0) {
 			return false;
 		}
 		// 设置
-		setHintNums(getNumViewAtPos(position), al, position);
+		setHintNums(candidates, position);
 		// 尝试次数增加2
-		increaseTryTimes(position, 2);
+		boardModel.increaseTryTimes(position, 2);
 		return true;
 	}
 
-	// 显示一个3*3区域块的提示信息
+	// 显示一个小矩阵区域块的提示信息
 	private boolean hintBlock(int position) {
 		Coord cd = convPos2Coord(position);
 		if (sudokuMatrix.isCellSolved(cd.x, cd.y)) {
@@ -755,18 +616,18 @@ public class SudokuPuzzleActivity extends Activity
 			return false;
 		}
 		boolean hinted = false;
-		int top = cd.x / SudokuMatrix.SQUARE_ROOT * SudokuMatrix.SQUARE_ROOT, left = cd.y - cd.y
-				% SudokuMatrix.SQUARE_ROOT;
-		for (int s = top; s < top + SudokuMatrix.SQUARE_ROOT; s++) {
-			for (int t = left; t < left + SudokuMatrix.SQUARE_ROOT; t++) {
-				ArrayList<Integer> al = sudokuMatrix.getCellOptValueList(s, t);
-				if (al == null) {
+		int root = sudokuMatrix.getRoot();
+		int top = cd.x / root * root, left = cd.y - cd.y % root;
+		for (int s = top; s < top + root; s++) {
+			for (int t = left; t < left + root; t++) {
+				int candidates = sudokuMatrix.getCellCandidates(s, t);
+				if (candidates == 0) {
 					continue;
 				}
 				int tmpPos = convCoord2Pos(s, t);
-				setHintNums(getNumViewAtPos(tmpPos), al, tmpPos);
+				setHintNums(candidates, tmpPos);
 				// 尝试次数增加2
-				increaseTryTimes(tmpPos, 2);
+				boardModel.increaseTryTimes(tmpPos, 2);
 				hinted = true;
 			}
 		}
@@ -781,15 +642,15 @@ public class SudokuPuzzleActivity extends Activity
 			return false;
 		}
 		boolean hinted = false;
-		for (int t = 0; t < SudokuMatrix.SQUARE_LENGTH; t++) {
-			ArrayList<Integer> al = sudokuMatrix.getCellOptValueList(cd.x, t);
-			if (al == null) {
+		for (int t = 0; t < sudokuMatrix.getLength(); t++) {
+			int candidates = sudokuMatrix.getCellCandidates(cd.x, t);
+			if (candidates == 0) {
 				continue;
 			}
 			int tmpPos = convCoord2Pos(cd.x, t);
-			setHintNums(getNumViewAtPos(tmpPos), al, tmpPos);
+			setHintNums(candidates, tmpPos);
 			// 尝试次数增加2
-			increaseTryTimes(tmpPos, 2);
+			boardModel.increaseTryTimes(tmpPos, 2);
 			hinted = true;
 		}
 		return hinted;
@@ -803,32 +664,25 @@ public class SudokuPuzzleActivity extends Activity
 			return false;
 		}
 		boolean hinted = false;
-		for (int s = 0; s < SudokuMatrix.SQUARE_LENGTH; s++) {
-			ArrayList<Integer> al = sudokuMatrix.getCellOptValueList(s, cd.y);
-			if (al == null) {
+		for (int s = 0; s < sudokuMatrix.getLength(); s++) {
+			int candidates = sudokuMatrix.getCellCandidates(s, cd.y);
+			if (candidates == 0) {
 				continue;
 			}
 			int tmpPos = convCoord2Pos(s, cd.y);
-			setHintNums(getNumViewAtPos(tmpPos), al, tmpPos);
+			setHintNums(candidates, tmpPos);
 			// 尝试次数增加2
-			increaseTryTimes(tmpPos, 2);
+			boardModel.increaseTryTimes(tmpPos, 2);
 			hinted = true;
 		}
 		return hinted;
 	}
 
-	private void setHintNums(TextView tv, ArrayList<Integer> al, int pos) {
-		if (tv.getText().length()>0) {
+	private void setHintNums(int candidates, int pos) {
+		if (!boardModel.isBlank(pos)) {
 			return;
 		}
-		tv.setTextSize(defaultNumTextSize / 2);
-		StringBuffer hint = new StringBuffer();
-		for (int i = 0; i < al.size(); i++) {
-			hint.append(al.get(i)).append(' ');
-		}
-		tv.setText(hint);
-		// 同时设置 matrixGridView item 值
-		Map<String, Object> itemObj = (Map<String, Object>) matrixGridView.getItemAtPosition(pos);
-		itemObj.put(VIEW_OBJ_VAL_KEY, hint);
+		boardModel.setNotes(pos, candidates);
+		refreshCell(pos);
 	}
 }
\ No newline at end of file